@@ -5,7 +5,31 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
+/**
+ * Annotation pour déclarer un contrôleur.
+ *
+ * <p>Le cycle de vie des instances se choisit avec scope :</p>
+ * <ul>
+ *   <li>PROTOTYPE (défaut) : une nouvelle instance par requête</li>
+ *   <li>SINGLETON : une seule instance partagée par toutes les requêtes (doit être sans état)</li>
+ *   <li>POOLED : un pool de poolSize instances réutilisées, une requête à la fois par instance</li>
+ * </ul>
+ * Exemple : {@literal @}Controller(scope = Controller.Scope.SINGLETON)
+ */
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.TYPE)
 public @interface Controller {
+
+    enum Scope {
+        SINGLETON,
+        PROTOTYPE,
+        POOLED
+    }
+
+    Scope scope() default Scope.PROTOTYPE;
+
+    /**
+     * Nombre d'instances créées au démarrage pour le scope POOLED.
+     */
+    int poolSize() default 8;
 }
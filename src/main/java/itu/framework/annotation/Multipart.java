@@ -0,0 +1,46 @@
+package itu.framework.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation pour lire le corps multipart/form-data d'une méthode avec le parseur du framework
+ * (itu.framework.multipart) au lieu de celui du conteneur, avec des limites propres à la route.
+ *
+ * Le corps est lu en flux : la requête est rejetée dès qu'une limite est franchie
+ * (413 pour une taille ou un nombre de parts, 415 pour un type MIME refusé).
+ * Une valeur &lt;= 0 désactive la limite correspondante.
+ *
+ * Exemple : {@literal @}Multipart(maxParts = 3, maxPartSize = 2 * 1024 * 1024, allowedTypes = {"image/*"})
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Multipart {
+
+    /**
+     * Nombre maximal de parts (champs texte et fichiers).
+     */
+    int maxParts() default 100;
+
+    /**
+     * Taille maximale d'une part, en octets.
+     */
+    long maxPartSize() default 16777216;
+
+    /**
+     * Taille maximale du corps de la requête, en octets.
+     */
+    long maxRequestSize() default 33554432;
+
+    /**
+     * Types MIME acceptés pour les fichiers (ex: "image/png", "image/*"). Vide : tous.
+     */
+    String[] allowedTypes() default {};
+
+    /**
+     * Au-delà de cette taille, un fichier est écrit dans un fichier temporaire plutôt qu'en mémoire.
+     */
+    int memoryThreshold() default 1048576;
+}
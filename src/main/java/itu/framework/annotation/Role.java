@@ -10,9 +10,22 @@ import java.lang.annotation.Target;
  * Peut prendre plusieurs rôles séparés par des virgules
  * Exemple: @Role("admin, dg")
  * Fonctionne uniquement si roleAttribute est défini dans web.xml
+ *
+ * L'attribut de session peut contenir un rôle (String), plusieurs rôles (Collection&lt;String&gt;
+ * ou String[]) ou un RoleSet.
+ * Par défaut un seul des rôles suffit (ANY) ; avec match = ALL, tous sont exigés.
+ * Exemple: @Role(value = "admin, comptable", match = Role.Match.ALL)
  */
 @Target(ElementType.METHOD)
 @Retention(RetentionPolicy.RUNTIME)
 public @interface Role {
+
+    enum Match {
+        ANY,
+        ALL
+    }
+
     String value();
+
+    Match match() default Match.ANY;
 }
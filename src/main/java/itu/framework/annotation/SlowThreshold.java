@@ -0,0 +1,19 @@
+package itu.framework.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation pour fixer le seuil de requête lente d'une méthode, en millisecondes.
+ * Remplace le seuil par défaut slowRequestThreshold de web.xml ; 0 désactive la détection
+ * pour cette méthode.
+ *
+ * Exemple : {@literal @}SlowThreshold(2000) pour un export volumineux
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface SlowThreshold {
+    long value();
+}
@@ -0,0 +1,456 @@
+package itu.framework.bind;
+
+import itu.framework.web.UploadFile;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Modèle de liaison d'une classe POJO, construit une seule fois par classe et mis en cache.
+ *
+ * Toute la réflexion (parcours des superclasses, setAccessible, types génériques des listes,
+ * champs UploadFile) est faite à la construction du modèle : chaque champ est ensuite lu et
+ * écrit via des MethodHandle, sans getDeclaredField ni NoSuchFieldException pendant la requête.
+ */
+final class BeanModel {
+
+    private static final ConcurrentHashMap<Class<?>, BeanModel> CACHE = new ConcurrentHashMap<>();
+
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final Class<?> type;
+    private final MethodHandle constructor;
+    private final Map<String, FieldAccessor> fields;
+    private final FieldAccessor[] uploadFileFields;
+    private final FieldAccessor[] uploadMapFields;
+
+    private BeanModel(Class<?> type) {
+        this.type = type;
+        this.constructor = findConstructor(type);
+
+        // Champs de la classe puis des superclasses : un champ redéclaré masque celui du parent
+        Map<String, FieldAccessor> accessors = new HashMap<>();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || accessors.containsKey(field.getName())) {
+                    continue;
+                }
+                FieldAccessor accessor = FieldAccessor.create(field);
+                if (accessor != null) {
+                    accessors.put(field.getName(), accessor);
+                }
+            }
+        }
+        this.fields = Collections.unmodifiableMap(accessors);
+
+        // Champs recevant les fichiers uploadés (champs déclarés par la classe elle-même)
+        List<FieldAccessor> files = new ArrayList<>();
+        List<FieldAccessor> fileMaps = new ArrayList<>();
+        for (Field field : type.getDeclaredFields()) {
+            FieldAccessor accessor = accessors.get(field.getName());
+            if (accessor == null || accessor.field != field) {
+                continue;
+            }
+            if (field.getType() == UploadFile.class) {
+                files.add(accessor);
+            } else if ((field.getType() == Map.class || field.getType() == HashMap.class)
+                    && ParameterBinders.isMapOfUploadFile(field.getGenericType())) {
+                fileMaps.add(accessor);
+            }
+        }
+        this.uploadFileFields = files.toArray(new FieldAccessor[0]);
+        this.uploadMapFields = fileMaps.toArray(new FieldAccessor[0]);
+    }
+
+    /**
+     * @return le modèle de la classe, construit au premier appel
+     */
+    static BeanModel of(Class<?> type) {
+        BeanModel model = CACHE.get(type);
+        if (model == null) {
+            // Pas de computeIfAbsent : la construction peut être concurrente mais jamais récursive
+            model = new BeanModel(type);
+            BeanModel existing = CACHE.putIfAbsent(type, model);
+            if (existing != null) {
+                model = existing;
+            }
+        }
+        return model;
+    }
+
+    /**
+     * Vide le cache, pour que les modèles suivants prennent en compte un nouveau TypeConverter.
+     */
+    static void clearCache() {
+        CACHE.clear();
+    }
+
+    Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * @return l'accesseur du champ, ou null si la classe (et ses parents) n'a pas ce champ
+     */
+    FieldAccessor field(String name) {
+        return fields.get(name);
+    }
+
+    FieldAccessor[] getUploadFileFields() {
+        return uploadFileFields;
+    }
+
+    FieldAccessor[] getUploadMapFields() {
+        return uploadMapFields;
+    }
+
+    /**
+     * Instancie la classe via son constructeur sans argument.
+     */
+    Object newInstance() throws ReflectiveOperationException {
+        if (constructor == null) {
+            throw new NoSuchMethodException(type.getName() + ".<init>()");
+        }
+        try {
+            return constructor.invokeExact();
+        } catch (ReflectiveOperationException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new java.lang.reflect.InvocationTargetException(t);
+        }
+    }
+
+    private static MethodHandle findConstructor(Class<?> type) {
+        if (type.isInterface() || Modifier.isAbstract(type.getModifiers()) || type.isPrimitive() || type.isArray()) {
+            return null;
+        }
+        try {
+            Constructor<?> ctor = type.getDeclaredConstructor();
+            ctor.setAccessible(true);
+            return MethodHandles.lookup().unreflectConstructor(ctor).asType(CONSTRUCTOR_TYPE);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    static MethodHandle unreflect(Field field, boolean setter) throws IllegalAccessException {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        return setter ? lookup.unreflectSetter(field).asType(SETTER_TYPE)
+                      : lookup.unreflectGetter(field).asType(GETTER_TYPE);
+    }
+
+    /**
+     * Accès précompilé à un champ : getter/setter MethodHandle, type des éléments pour une
+     * List, et écriture String -> type du champ résolue une fois (voir TypeConverters).
+     */
+    static final class FieldAccessor {
+        final Field field;
+        final String name;
+        final Class<?> type;
+        final Class<?> listElementType;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+        private final FieldWriter writer;
+        // Champ tableau : convertisseur des éléments, pour les inputs à valeurs multiples
+        private final TypeConverter<?> arrayElementConverter;
+
+        private FieldAccessor(Field field, MethodHandle getter, MethodHandle setter) {
+            this.field = field;
+            this.name = field.getName();
+            this.type = field.getType();
+            this.listElementType = resolveListElementType(field);
+            this.getter = getter;
+            this.setter = setter;
+            this.writer = setter != null ? FieldWriter.create(field, setter) : null;
+            this.arrayElementConverter = type.isArray() && !TypeConverters.isRegistered(type)
+                    ? TypeConverters.find(type.getComponentType()) : null;
+        }
+
+        static FieldAccessor create(Field field) {
+            MethodHandle getter;
+            try {
+                field.setAccessible(true);
+                getter = unreflect(field, false);
+            } catch (IllegalAccessException | RuntimeException e) {
+                // Champ inaccessible (module fermé) : il sera traité comme absent
+                return null;
+            }
+            MethodHandle setter = null;
+            try {
+                setter = unreflect(field, true);
+            } catch (IllegalAccessException e) {
+                // Les champs final ordinaires sont modifiables après setAccessible, comme avec
+                // Field.set ; seuls ceux d'un record ou d'une classe cachée refusent le setter.
+                // Le champ est alors en lecture seule, mais reste navigable (objet imbriqué déjà initialisé)
+            }
+            return new FieldAccessor(field, getter, setter);
+        }
+
+        Object get(Object target) {
+            try {
+                return getter.invokeExact(target);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        }
+
+        void set(Object target, Object value) {
+            if (setter == null) {
+                throw new IllegalArgumentException("Champ " + name + " en lecture seule");
+            }
+            try {
+                setter.invokeExact(target, value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        }
+
+        /**
+         * Affecte une valeur de formulaire. Une chaîne vide est ignorée, sauf pour un champ String.
+         */
+        void setText(Object target, String value) {
+            if (value == null) {
+                return;
+            }
+            if (type != String.class && value.isEmpty()) {
+                return;
+            }
+            if (writer == null) {
+                throw new IllegalArgumentException("Champ " + name + " en lecture seule");
+            }
+            try {
+                writer.write(target, value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        }
+
+        /**
+         * @return true si le champ est un tableau alimenté par toutes les valeurs d'un même input
+         */
+        boolean acceptsMultipleValues() {
+            return arrayElementConverter != null;
+        }
+
+        void setTexts(Object target, String[] values) {
+            set(target, TypeConverters.toArray(type.getComponentType(), arrayElementConverter, values));
+        }
+
+        private static Class<?> resolveListElementType(Field field) {
+            java.lang.reflect.Type genericType = field.getGenericType();
+            if (genericType instanceof ParameterizedType) {
+                ParameterizedType pt = (ParameterizedType) genericType;
+                java.lang.reflect.Type[] args = pt.getActualTypeArguments();
+                if (args.length == 1 && args[0] instanceof Class<?>) {
+                    return (Class<?>) args[0];
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Écriture d'une valeur de formulaire dans un champ. Les champs primitifs sont écrits via un
+     * setter typé (Object, int)void, (Object, long)void... : la valeur n'est jamais enveloppée.
+     */
+    private abstract static class FieldWriter {
+
+        abstract void write(Object target, String value) throws Throwable;
+
+        static FieldWriter create(Field field, MethodHandle objectSetter) {
+            Class<?> type = field.getType();
+            boolean registered = TypeConverters.isRegistered(type) || TypeConverters.isRegistered(TypeConverters.wrap(type));
+            if (type.isPrimitive() && !registered) {
+                try {
+                    MethodHandle setter = MethodHandles.lookup().unreflectSetter(field)
+                            .asType(MethodType.methodType(void.class, Object.class, type));
+                    return PrimitiveWriter.forType(type, setter);
+                } catch (IllegalAccessException e) {
+                    // Impossible ici : le setter générique vient d'être obtenu pour ce champ
+                }
+            }
+            TypeConverter<?> converter = TypeConverters.find(type);
+            if (converter == null) {
+                return new UnsupportedWriter(field);
+            }
+            return new ObjectWriter(converter, objectSetter);
+        }
+    }
+
+    /**
+     * Écriture d'un champ primitif : une sous-classe par type, choisie une fois par champ,
+     * pour que write() ne fasse que parseX + invokeExact.
+     */
+    private abstract static class PrimitiveWriter extends FieldWriter {
+        final MethodHandle setter;
+
+        PrimitiveWriter(MethodHandle setter) {
+            this.setter = setter;
+        }
+
+        static PrimitiveWriter forType(Class<?> type, MethodHandle setter) {
+            if (type == int.class) {
+                return new IntWriter(setter);
+            }
+            if (type == long.class) {
+                return new LongWriter(setter);
+            }
+            if (type == double.class) {
+                return new DoubleWriter(setter);
+            }
+            if (type == boolean.class) {
+                return new BooleanWriter(setter);
+            }
+            if (type == float.class) {
+                return new FloatWriter(setter);
+            }
+            if (type == short.class) {
+                return new ShortWriter(setter);
+            }
+            if (type == byte.class) {
+                return new ByteWriter(setter);
+            }
+            return new CharWriter(setter);
+        }
+    }
+
+    private static final class IntWriter extends PrimitiveWriter {
+        IntWriter(MethodHandle setter) {
+            super(setter);
+        }
+
+        @Override
+        void write(Object target, String value) throws Throwable {
+            setter.invokeExact(target, Integer.parseInt(value));
+        }
+    }
+
+    private static final class LongWriter extends PrimitiveWriter {
+        LongWriter(MethodHandle setter) {
+            super(setter);
+        }
+
+        @Override
+        void write(Object target, String value) throws Throwable {
+            setter.invokeExact(target, Long.parseLong(value));
+        }
+    }
+
+    private static final class DoubleWriter extends PrimitiveWriter {
+        DoubleWriter(MethodHandle setter) {
+            super(setter);
+        }
+
+        @Override
+        void write(Object target, String value) throws Throwable {
+            setter.invokeExact(target, Double.parseDouble(value));
+        }
+    }
+
+    private static final class BooleanWriter extends PrimitiveWriter {
+        BooleanWriter(MethodHandle setter) {
+            super(setter);
+        }
+
+        @Override
+        void write(Object target, String value) throws Throwable {
+            setter.invokeExact(target, Boolean.parseBoolean(value));
+        }
+    }
+
+    private static final class FloatWriter extends PrimitiveWriter {
+        FloatWriter(MethodHandle setter) {
+            super(setter);
+        }
+
+        @Override
+        void write(Object target, String value) throws Throwable {
+            setter.invokeExact(target, Float.parseFloat(value));
+        }
+    }
+
+    private static final class ShortWriter extends PrimitiveWriter {
+        ShortWriter(MethodHandle setter) {
+            super(setter);
+        }
+
+        @Override
+        void write(Object target, String value) throws Throwable {
+            setter.invokeExact(target, Short.parseShort(value));
+        }
+    }
+
+    private static final class ByteWriter extends PrimitiveWriter {
+        ByteWriter(MethodHandle setter) {
+            super(setter);
+        }
+
+        @Override
+        void write(Object target, String value) throws Throwable {
+            setter.invokeExact(target, Byte.parseByte(value));
+        }
+    }
+
+    private static final class CharWriter extends PrimitiveWriter {
+        CharWriter(MethodHandle setter) {
+            super(setter);
+        }
+
+        @Override
+        void write(Object target, String value) throws Throwable {
+            if (value.length() != 1) {
+                throw new IllegalArgumentException("Un seul caractère attendu: '" + value + "'");
+            }
+            setter.invokeExact(target, value.charAt(0));
+        }
+    }
+
+    private static final class ObjectWriter extends FieldWriter {
+        private final TypeConverter<?> converter;
+        private final MethodHandle setter;
+
+        ObjectWriter(TypeConverter<?> converter, MethodHandle setter) {
+            this.converter = converter;
+            this.setter = setter;
+        }
+
+        @Override
+        void write(Object target, String value) throws Throwable {
+            Object converted = converter.convert(value);
+            setter.invokeExact(target, converted);
+        }
+    }
+
+    private static final class UnsupportedWriter extends FieldWriter {
+        private final String message;
+
+        UnsupportedWriter(Field field) {
+            this.message = "Aucun TypeConverter pour le champ " + field.getName() + " de type " +
+                    field.getType().getName() + " (voir TypeConverters.register)";
+        }
+
+        @Override
+        void write(Object target, String value) {
+            throw new IllegalArgumentException(message);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package itu.framework.bind;
+
+import itu.framework.web.SessionMap;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Données d'une requête nécessaires à la liaison des arguments d'une méthode de contrôleur.
+ * Créé une fois par requête par FrontServlet puis passé à chaque ParameterBinder.
+ */
+public final class BindingContext {
+
+    private final HttpServletRequest request;
+    private final String httpMethod;
+    private final String[] pathValues;
+    private final SessionMap sessionMap;
+    private final UploadedFiles uploadedFiles;
+    private final long jsonBodyMaxSize;
+
+    /**
+     * @param jsonBodyMaxSize Taille maximale d'un corps JSON en octets (&lt;= 0 : illimitée)
+     */
+    public BindingContext(HttpServletRequest request,
+                          String httpMethod,
+                          String[] pathValues,
+                          SessionMap sessionMap,
+                          UploadedFiles uploadedFiles,
+                          long jsonBodyMaxSize) {
+        this.request = request;
+        this.httpMethod = httpMethod;
+        this.pathValues = pathValues;
+        this.sessionMap = sessionMap;
+        this.uploadedFiles = uploadedFiles;
+        this.jsonBodyMaxSize = jsonBodyMaxSize;
+    }
+
+    public HttpServletRequest getRequest() {
+        return request;
+    }
+
+    public String getHttpMethod() {
+        return httpMethod;
+    }
+
+    /**
+     * @return les valeurs des variables de chemin, dans l'ordre de MethodInfo.getPathParamNames()
+     */
+    public String[] getPathValues() {
+        return pathValues;
+    }
+
+    public SessionMap getSessionMap() {
+        return sessionMap;
+    }
+
+    /**
+     * @return l'accès paresseux aux fichiers uploadés (UploadedFiles.NONE si la route n'en consomme pas)
+     */
+    public UploadedFiles getUploadedFiles() {
+        return uploadedFiles;
+    }
+
+    /**
+     * @return la taille maximale d'un corps JSON en octets (&lt;= 0 : illimitée)
+     */
+    public long getJsonBodyMaxSize() {
+        return jsonBodyMaxSize;
+    }
+}
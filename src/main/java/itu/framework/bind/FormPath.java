@@ -0,0 +1,156 @@
+package itu.framework.bind;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Nom d'input de formulaire découpé une fois pour toutes : "u.lignes[3].produit.prix"
+ * donne la racine "u" et les segments lignes[3], produit, prix.
+ *
+ * Le découpage est écrit à la main (ni split ni expression régulière) et mis en cache par
+ * nom de paramètre : un formulaire de 200 lignes ne découpe chaque nom qu'une fois par
+ * application. Le cache est borné car les noms de paramètres viennent du client ; au-delà
+ * de la limite, le nom est découpé à chaque requête sans être conservé.
+ */
+final class FormPath {
+
+    private static final int MAX_CACHED_PATHS = 4096;
+
+    private static final ConcurrentHashMap<String, FormPath> CACHE = new ConcurrentHashMap<>();
+    // Clés de liste canoniques : deux chemins vers la même liste partagent la même instance
+    private static final ConcurrentHashMap<String, String> ARRAY_KEYS = new ConcurrentHashMap<>();
+
+    final Token[] tokens;
+    // "u.lignes[]" seul : crée une nouvelle entrée de liste sans affecter de valeur
+    final boolean arrayEntryMarker;
+
+    private FormPath(Token[] tokens, boolean arrayEntryMarker) {
+        this.tokens = tokens;
+        this.arrayEntryMarker = arrayEntryMarker;
+    }
+
+    /**
+     * Indique si le nom d'input vise le paramètre root (forme root.champ), sans allocation.
+     */
+    static boolean hasRoot(String parameterName, String root) {
+        return parameterName.length() > root.length() + 1
+                && parameterName.charAt(root.length()) == '.'
+                && parameterName.startsWith(root);
+    }
+
+    /**
+     * @param parameterName Le nom complet de l'input, dont la racine a déjà été vérifiée
+     * @param rootLength La longueur de la racine (nom du paramètre de la méthode)
+     */
+    static FormPath of(String parameterName, int rootLength) {
+        FormPath path = CACHE.get(parameterName);
+        if (path == null) {
+            path = parse(parameterName, rootLength + 1);
+            if (CACHE.size() < MAX_CACHED_PATHS) {
+                FormPath existing = CACHE.putIfAbsent(parameterName, path);
+                if (existing != null) {
+                    path = existing;
+                }
+            }
+        }
+        return path;
+    }
+
+    private static FormPath parse(String name, int start) {
+        // Comme String.split : les segments vides en fin de chemin sont ignorés
+        int end = name.length();
+        while (end > start && name.charAt(end - 1) == '.') {
+            end--;
+        }
+
+        List<Token> tokens = new ArrayList<>();
+        StringBuilder arrayKey = new StringBuilder();
+        int segmentStart = start;
+        while (segmentStart < end) {
+            int segmentEnd = name.indexOf('.', segmentStart);
+            if (segmentEnd < 0 || segmentEnd > end) {
+                segmentEnd = end;
+            }
+            Token token = parseToken(name, segmentStart, segmentEnd, arrayKey);
+            tokens.add(token);
+            segmentStart = segmentEnd + 1;
+        }
+
+        boolean marker = tokens.size() == 1 && tokens.get(0).array && tokens.get(0).explicitIndex < 0;
+        return new FormPath(tokens.toArray(new Token[0]), marker);
+    }
+
+    /**
+     * Découpe name[start, end) en nom et index : "lignes[3]", "lignes[]" ou "prix".
+     * Même règle que l'ancien motif ^(.+?)\[(\d*)\]$ : nom non vide, index en chiffres.
+     */
+    private static Token parseToken(String name, int start, int end, StringBuilder arrayKey) {
+        int nameEnd = end;
+        boolean array = false;
+        int explicitIndex = -1;
+
+        if (end - start >= 3 && name.charAt(end - 1) == ']') {
+            int open = name.lastIndexOf('[', end - 2);
+            if (open > start) {
+                int index = 0;
+                boolean digits = true;
+                for (int i = open + 1; i < end - 1; i++) {
+                    int digit = name.charAt(i) - '0';
+                    if (digit < 0 || digit > 9) {
+                        digits = false;
+                        break;
+                    }
+                    if (index > (Integer.MAX_VALUE - digit) / 10) {
+                        throw new NumberFormatException("Index de liste trop grand: " + name.substring(open + 1, end - 1));
+                    }
+                    index = index * 10 + digit;
+                }
+                if (digits) {
+                    array = true;
+                    nameEnd = open;
+                    explicitIndex = open + 1 < end - 1 ? index : -1;
+                }
+            }
+        }
+
+        String fieldName = name.substring(start, nameEnd);
+        // La clé d'une liste est le chemin des noms de champs, sans les index (ex: "lignes.taxes")
+        if (arrayKey.length() > 0) {
+            arrayKey.append('.');
+        }
+        arrayKey.append(fieldName);
+        String key = array ? canonicalArrayKey(arrayKey.toString()) : null;
+        return new Token(fieldName, array, explicitIndex, key);
+    }
+
+    private static String canonicalArrayKey(String key) {
+        String existing = ARRAY_KEYS.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        if (ARRAY_KEYS.size() >= MAX_CACHED_PATHS) {
+            return key;
+        }
+        existing = ARRAY_KEYS.putIfAbsent(key, key);
+        return existing != null ? existing : key;
+    }
+
+    /**
+     * Un segment du chemin : nom du champ, et pour une liste, l'index explicite (-1 si "[]")
+     * et la clé canonique de la liste.
+     */
+    static final class Token {
+        final String name;
+        final boolean array;
+        final int explicitIndex;
+        final String arrayKey;
+
+        Token(String name, boolean array, int explicitIndex, String arrayKey) {
+            this.name = name;
+            this.array = array;
+            this.explicitIndex = explicitIndex;
+            this.arrayKey = arrayKey;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package itu.framework.bind;
+
+import itu.framework.json.JsonSupport;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Lecture d'un corps application/json directement dans le type d'un paramètre.
+ *
+ * Le TypeAdapter du type générique du paramètre (POJO, Map&lt;String, Object&gt;, List&lt;T&gt;)
+ * est résolu une fois au scan avec l'instance Gson partagée (LocalDateAdapter compris). À la
+ * requête, le JsonReader lit le flux de la requête au fil de l'eau : aucune String du corps
+ * complet n'est construite, et la lecture s'arrête dès que la taille maximale est dépassée.
+ */
+final class JsonBodyReader {
+
+    private final TypeAdapter<?> adapter;
+    private final Type type;
+
+    JsonBodyReader(Type type) {
+        this.type = type;
+        this.adapter = JsonSupport.GSON.getAdapter(TypeToken.get(type));
+    }
+
+    /**
+     * Indique si le Content-Type est JSON (application/json ou application/*+json).
+     */
+    static boolean isJson(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        String mediaType = contentType.toLowerCase(Locale.ROOT);
+        int semicolon = mediaType.indexOf(';');
+        if (semicolon >= 0) {
+            mediaType = mediaType.substring(0, semicolon);
+        }
+        mediaType = mediaType.trim();
+        return mediaType.equals("application/json")
+                || (mediaType.startsWith("application/") && mediaType.endsWith("+json"));
+    }
+
+    /**
+     * @param maxSize Taille maximale du corps en octets (&lt;= 0 : illimitée)
+     * @return la valeur lue, ou null si le corps est vide
+     * @throws RequestBodyException 413 au-delà de maxSize, 400 si le JSON est invalide
+     */
+    Object read(HttpServletRequest req, long maxSize) throws IOException {
+        long contentLength = req.getContentLengthLong();
+        if (maxSize > 0 && contentLength > maxSize) {
+            throw tooLarge(maxSize);
+        }
+        Charset charset = StandardCharsets.UTF_8;
+        if (req.getCharacterEncoding() != null) {
+            try {
+                charset = Charset.forName(req.getCharacterEncoding());
+            } catch (IllegalArgumentException e) {
+                throw new RequestBodyException(HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE,
+                        "Encodage du corps JSON non supporté: " + req.getCharacterEncoding());
+            }
+        }
+
+        InputStream in = req.getInputStream();
+        if (maxSize > 0) {
+            in = new LimitedInputStream(in, maxSize);
+        }
+        JsonReader reader = JsonSupport.GSON.newJsonReader(new InputStreamReader(in, charset));
+        try {
+            reader.peek();
+        } catch (EOFException emptyBody) {
+            return null;
+        }
+        try {
+            Object value = adapter.read(reader);
+            if (reader.peek() != JsonToken.END_DOCUMENT) {
+                throw new RequestBodyException(HttpServletResponse.SC_BAD_REQUEST,
+                        "Corps JSON invalide: contenu après la valeur");
+            }
+            return value;
+        } catch (EOFException e) {
+            throw new RequestBodyException(HttpServletResponse.SC_BAD_REQUEST,
+                    "Corps JSON invalide: fin de flux inattendue", e);
+        } catch (MalformedJsonException | JsonParseException | IllegalStateException | NumberFormatException e) {
+            throw new RequestBodyException(HttpServletResponse.SC_BAD_REQUEST,
+                    "Corps JSON invalide pour le type " + type.getTypeName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static RequestBodyException tooLarge(long maxSize) {
+        return new RequestBodyException(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE,
+                "Corps JSON trop volumineux (maximum " + maxSize + " octets)");
+    }
+
+    /**
+     * Flux qui échoue (413) dès que plus de maxSize octets ont été lus.
+     */
+    private static final class LimitedInputStream extends FilterInputStream {
+        private final long maxSize;
+        private long count;
+
+        LimitedInputStream(InputStream in, long maxSize) {
+            super(in);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count(skipped);
+            return skipped;
+        }
+
+        private void count(long n) throws RequestBodyException {
+            count += n;
+            if (count > maxSize) {
+                throw tooLarge(maxSize);
+            }
+        }
+    }
+}
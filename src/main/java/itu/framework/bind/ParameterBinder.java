@@ -0,0 +1,12 @@
+package itu.framework.bind;
+
+/**
+ * Stratégie de liaison d'un paramètre de méthode de contrôleur.
+ * Le plan de liaison (un ParameterBinder par paramètre) est compilé une seule fois par
+ * ControllerScanner : aucune inspection de type n'a lieu pendant la requête.
+ */
+@FunctionalInterface
+public interface ParameterBinder {
+
+    Object bind(BindingContext context) throws Exception;
+}
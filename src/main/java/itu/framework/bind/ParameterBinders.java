@@ -0,0 +1,158 @@
+package itu.framework.bind;
+
+import itu.framework.routing.PathConstraint;
+import itu.framework.web.UploadFile;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Fabrique des stratégies de liaison utilisées dans le plan de chaque méthode :
+ * session, variable de chemin, fichier, Map de fichiers, Map de paramètres, String, POJO
+ * et corps JSON.
+ */
+public final class ParameterBinders {
+
+    private ParameterBinders() {
+    }
+
+    /**
+     * Paramètre annoté @Session : la SessionMap de la requête.
+     */
+    public static ParameterBinder session() {
+        return BindingContext::getSessionMap;
+    }
+
+    /**
+     * Variable de chemin, déjà validée par sa contrainte lors de la résolution.
+     */
+    public static ParameterBinder pathVariable(int pathIndex, Class<?> type) {
+        if (type == String.class) {
+            return context -> context.getPathValues()[pathIndex];
+        }
+        return context -> PathConstraint.convert(context.getPathValues()[pathIndex], type);
+    }
+
+    /**
+     * UploadFile : le fichier du champ fileKey, sinon le premier fichier disponible.
+     */
+    public static ParameterBinder uploadFile(String fileKey) {
+        return context -> context.getUploadedFiles().getOrFirst(fileKey);
+    }
+
+    /**
+     * byte[] : le contenu du fichier du champ fileKey, sinon du premier fichier disponible.
+     */
+    public static ParameterBinder uploadBytes(String fileKey) {
+        return context -> {
+            UploadFile file = context.getUploadedFiles().getOrFirst(fileKey);
+            return file != null ? file.getContent() : null;
+        };
+    }
+
+    /**
+     * Map&lt;String, UploadFile&gt; : tous les fichiers uploadés.
+     */
+    public static ParameterBinder uploadMap() {
+        return context -> context.getUploadedFiles().all();
+    }
+
+    /**
+     * Map&lt;String, Object&gt; : tous les paramètres (POST uniquement) et les fichiers uploadés.
+     */
+    public static ParameterBinder paramMap() {
+        return context -> {
+            Map<String, Object> allParams = new HashMap<>();
+            if (!"POST".equals(context.getHttpMethod())) {
+                return allParams;
+            }
+            HttpServletRequest req = context.getRequest();
+            Enumeration<String> parameterNames = req.getParameterNames();
+            while (parameterNames.hasMoreElements()) {
+                String key = parameterNames.nextElement();
+                allParams.put(key, req.getParameter(key));
+            }
+
+            // Ajouter les fichiers uploadés à la Map
+            allParams.putAll(context.getUploadedFiles().all());
+
+            return allParams;
+        };
+    }
+
+    /**
+     * String : attribut de requête, puis paramètre du même nom, puis paramètre @RequestParameter(key).
+     */
+    public static ParameterBinder string(String paramName, String paramKey) {
+        return context -> {
+            HttpServletRequest req = context.getRequest();
+            Object attrValue = req.getAttribute(paramName);
+            if (attrValue != null) {
+                return attrValue.toString();
+            }
+
+            String paramValue = req.getParameter(paramName);
+            if (paramValue != null) {
+                return paramValue;
+            }
+
+            if (paramKey != null) {
+                return req.getParameter(paramKey);
+            }
+
+            return null;
+        };
+    }
+
+    /**
+     * Classe POJO remplie à partir des paramètres paramName.champ.
+     */
+    public static ParameterBinder pojo(String paramName, Class<?> type) {
+        return context -> PojoBinder.bind(context.getRequest(), paramName, type, context.getUploadedFiles());
+    }
+
+    /**
+     * Paramètre qui reçoit le corps de la requête s'il est en JSON (POJO, Map&lt;String, Object&gt;
+     * ou List&lt;T&gt;), lu en flux dans le type générique du paramètre.
+     * @param genericType Type générique du paramètre, dont le TypeAdapter est résolu ici, une fois
+     * @param fallback Liaison utilisée si le corps n'est pas du JSON (null : le paramètre vaut null)
+     */
+    public static ParameterBinder jsonBody(Type genericType, ParameterBinder fallback) {
+        JsonBodyReader reader = new JsonBodyReader(genericType);
+        return context -> {
+            HttpServletRequest req = context.getRequest();
+            if (JsonBodyReader.isJson(req.getContentType())) {
+                return reader.read(req, context.getJsonBodyMaxSize());
+            }
+            return fallback != null ? fallback.bind(context) : null;
+        };
+    }
+
+    /**
+     * Indique si une classe POJO reçoit des fichiers uploadés (champs UploadFile ou
+     * Map&lt;String, UploadFile&gt;), pour décider à l'analyse si la route lit les parts multipart.
+     */
+    public static boolean pojoConsumesUploads(Class<?> type) {
+        BeanModel model = BeanModel.of(type);
+        return model.getUploadFileFields().length > 0 || model.getUploadMapFields().length > 0;
+    }
+
+    /**
+     * Vérifie si le type générique est Map&lt;String, UploadFile&gt;
+     */
+    public static boolean isMapOfUploadFile(Type genericType) {
+        if (!(genericType instanceof ParameterizedType)) {
+            return false;
+        }
+
+        Type[] typeArgs = ((ParameterizedType) genericType).getActualTypeArguments();
+
+        // Vérifier que le premier argument est String et le second est UploadFile
+        return typeArgs.length == 2 && typeArgs[0] == String.class && typeArgs[1] == UploadFile.class;
+    }
+}
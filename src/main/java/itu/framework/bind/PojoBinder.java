@@ -0,0 +1,204 @@
+package itu.framework.bind;
+
+import itu.framework.web.UploadFile;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Liaison d'un paramètre POJO à partir des paramètres de la requête (sprint 8 bis).
+ * Les noms des inputs suivent la forme nomParametre.champ, avec imbrication
+ * (user.adresse.ville) et listes (lignes[0].prix ou lignes[].prix).
+ */
+public final class PojoBinder {
+
+    private PojoBinder() {
+    }
+
+    public static Object bind(HttpServletRequest req, String paramName, Class<?> paramType, UploadedFiles uploadedFiles) throws Exception {
+        BeanModel model = BeanModel.of(paramType);
+        Object pojoInstance = model.newInstance();
+        ArrayIndexState arrayIndices = new ArrayIndexState();
+        java.util.Enumeration<String> parameterNames = req.getParameterNames();
+
+        // Traiter d'abord les paramètres HTTP
+        while (parameterNames.hasMoreElements()) {
+            String httpParamName = parameterNames.nextElement();
+            if (!FormPath.hasRoot(httpParamName, paramName)) {
+                continue;
+            }
+
+            FormPath path = FormPath.of(httpParamName, paramName.length());
+
+            if (path.arrayEntryMarker) {
+                assignNestedField(pojoInstance, path, null, 0, arrayIndices, true);
+                continue;
+            }
+
+            String[] values = req.getParameterValues(httpParamName);
+            if (values == null || values.length == 0) {
+                values = new String[] { req.getParameter(httpParamName) };
+            }
+
+            // Chaque nom n'est énuméré qu'une fois : à partir de la 2e valeur, "[]" ouvre une nouvelle entrée
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] == null) {
+                    continue;
+                }
+                if (assignNestedField(pojoInstance, path, values, i, arrayIndices, i > 0)) {
+                    break;
+                }
+            }
+        }
+        
+        // Traiter ensuite les fichiers uploadés pour les champs UploadFile et Map<String, UploadFile>
+        // (champs repérés une fois pour toutes dans le modèle de la classe)
+        for (BeanModel.FieldAccessor field : model.getUploadFileFields()) {
+            // Le fichier du même nom, sinon le premier fichier disponible
+            UploadFile file = uploadedFiles.getOrFirst(field.name);
+            if (file != null) {
+                field.set(pojoInstance, file);
+            }
+        }
+        for (BeanModel.FieldAccessor field : model.getUploadMapFields()) {
+            field.set(pojoInstance, uploadedFiles.all());
+        }
+
+        return pojoInstance;
+    }
+
+    /**
+     * Parcourt le chemin jusqu'au dernier champ et y affecte values[valueIndex]
+     * (values null : création seule, pour le marqueur "[]").
+     * @return true si toutes les valeurs ont été consommées (champ tableau)
+     */
+    private static boolean assignNestedField(Object root,
+                                   FormPath path,
+                                   String[] values,
+                                   int valueIndex,
+                                   ArrayIndexState arrayIndices,
+                                   boolean forceNewListEntry) throws ReflectiveOperationException {
+        FormPath.Token[] tokens = path.tokens;
+        Object current = root;
+
+        for (int idx = 0; idx < tokens.length; idx++) {
+            FormPath.Token token = tokens[idx];
+            BeanModel.FieldAccessor field = BeanModel.of(current.getClass()).field(token.name);
+            if (field == null) {
+                throw new NoSuchFieldException(token.name);
+            }
+
+            boolean isLastSegment = idx == tokens.length - 1;
+
+            if (token.array) {
+                List<Object> list = getOrCreateList(field, current);
+                int targetIndex = arrayIndices.resolve(token, forceNewListEntry);
+                current = ensureListElement(list, targetIndex, field);
+
+                if (isLastSegment) {
+                    return false;
+                }
+            } else {
+                if (isLastSegment) {
+                    if (values == null) {
+                        return false;
+                    }
+                    if (field.acceptsMultipleValues() && values.length > 1) {
+                        // Input répété (cases à cocher, select multiple) vers un champ tableau
+                        field.setTexts(current, values);
+                        return true;
+                    }
+                    field.setText(current, values[valueIndex]);
+                    return false;
+                }
+                Object nextValue = field.get(current);
+                if (nextValue == null) {
+                    nextValue = BeanModel.of(field.type).newInstance();
+                    field.set(current, nextValue);
+                }
+                current = nextValue;
+            }
+        }
+        return false;
+    }
+
+    private static List<Object> getOrCreateList(BeanModel.FieldAccessor field, Object target) {
+        Object existing = field.get(target);
+        if (existing == null) {
+            List<Object> list = new ArrayList<>();
+            field.set(target, list);
+            return list;
+        }
+        if (existing instanceof List<?>) {
+            @SuppressWarnings("unchecked")
+            List<Object> list = (List<Object>) existing;
+            return list;
+        }
+        throw new IllegalArgumentException("Champ " + field.name + " n'est pas une List");
+    }
+
+    private static Object ensureListElement(List<Object> list, int index, BeanModel.FieldAccessor field) throws ReflectiveOperationException {
+        while (list.size() <= index) {
+            list.add(null);
+        }
+        Object element = list.get(index);
+        if (element == null) {
+            Class<?> elementClass = field.listElementType;
+            if (elementClass == null) {
+                throw new IllegalArgumentException("Impossible de déterminer le type des éléments pour " + field.name);
+            }
+            element = BeanModel.of(elementClass).newInstance();
+            list.set(index, element);
+        }
+        return element;
+    }
+
+    /**
+     * Index courant et prochain index automatique de chaque liste, pour une requête.
+     * Les clés sont canoniques (voir FormPath) : une recherche linéaire par identité
+     * sur quelques entrées remplace les deux HashMap&lt;String, Integer&gt;.
+     */
+    private static final class ArrayIndexState {
+        private String[] keys = new String[4];
+        private int[] currentIndices = new int[4];
+        private int[] nextIndices = new int[4];
+        private int size;
+
+        int resolve(FormPath.Token token, boolean forceNewEntry) {
+            int slot = slot(token.arrayKey);
+            if (token.explicitIndex >= 0) {
+                currentIndices[slot] = token.explicitIndex;
+                return token.explicitIndex;
+            }
+            if (currentIndices[slot] < 0 || forceNewEntry) {
+                currentIndices[slot] = nextIndices[slot]++;
+            }
+            return currentIndices[slot];
+        }
+
+        private int slot(String key) {
+            for (int i = 0; i < size; i++) {
+                if (keys[i] == key) {
+                    return i;
+                }
+            }
+            // Clé hors cache (non canonique) : comparaison par contenu
+            for (int i = 0; i < size; i++) {
+                if (keys[i].equals(key)) {
+                    return i;
+                }
+            }
+            if (size == keys.length) {
+                keys = java.util.Arrays.copyOf(keys, size * 2);
+                currentIndices = java.util.Arrays.copyOf(currentIndices, size * 2);
+                nextIndices = java.util.Arrays.copyOf(nextIndices, size * 2);
+            }
+            keys[size] = key;
+            currentIndices[size] = -1;
+            nextIndices[size] = 0;
+            return size++;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package itu.framework.bind;
+
+import java.io.IOException;
+
+/**
+ * Corps de requête refusé pendant la liaison des arguments : trop volumineux (413) ou mal
+ * formé (400). FrontServlet renvoie le statut porté par l'exception.
+ */
+public class RequestBodyException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+
+    public RequestBodyException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public RequestBodyException(int status, String message, Throwable cause) {
+        super(message, cause);
+        this.status = status;
+    }
+
+    /**
+     * @return le statut HTTP à renvoyer
+     */
+    public int getStatus() {
+        return status;
+    }
+}
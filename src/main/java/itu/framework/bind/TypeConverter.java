@@ -0,0 +1,12 @@
+package itu.framework.bind;
+
+/**
+ * Conversion d'une valeur de formulaire (chaîne non vide) vers le type d'un champ POJO.
+ * Les convertisseurs sont résolus une fois par champ, à la construction du modèle de la
+ * classe (voir TypeConverters) : aucune recherche de type n'a lieu pendant la requête.
+ */
+@FunctionalInterface
+public interface TypeConverter<T> {
+
+    T convert(String value);
+}
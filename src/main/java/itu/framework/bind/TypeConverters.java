@@ -0,0 +1,189 @@
+package itu.framework.bind;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registre des convertisseurs String -> type utilisés pour les champs des POJO.
+ *
+ * Types pris en charge : String, types primitifs et leurs enveloppes, BigDecimal, BigInteger,
+ * LocalDate, LocalDateTime, LocalTime, Instant, UUID, enums (nom de la constante) et
+ * tableaux de ces types (valeurs séparées par des virgules, ou valeurs multiples du même input).
+ *
+ * Un convertisseur enregistré par l'application est prioritaire sur les types intégrés.
+ * L'enregistrement se fait au démarrage (ex: dans un ServletContextListener) ;
+ * il invalide les modèles de classes déjà construits.
+ */
+public final class TypeConverters {
+
+    private static final Map<Class<?>, TypeConverter<?>> BUILT_IN = new HashMap<>();
+    private static final ConcurrentHashMap<Class<?>, TypeConverter<?>> REGISTERED = new ConcurrentHashMap<>();
+
+    static {
+        BUILT_IN.put(String.class, value -> value);
+        BUILT_IN.put(Integer.class, Integer::valueOf);
+        BUILT_IN.put(Long.class, Long::valueOf);
+        BUILT_IN.put(Double.class, Double::valueOf);
+        BUILT_IN.put(Float.class, Float::valueOf);
+        BUILT_IN.put(Short.class, Short::valueOf);
+        BUILT_IN.put(Byte.class, Byte::valueOf);
+        BUILT_IN.put(Boolean.class, Boolean::valueOf);
+        BUILT_IN.put(Character.class, TypeConverters::parseChar);
+        BUILT_IN.put(BigDecimal.class, BigDecimal::new);
+        BUILT_IN.put(BigInteger.class, BigInteger::new);
+        BUILT_IN.put(LocalDate.class, LocalDate::parse);
+        BUILT_IN.put(LocalDateTime.class, LocalDateTime::parse);
+        BUILT_IN.put(LocalTime.class, LocalTime::parse);
+        BUILT_IN.put(Instant.class, Instant::parse);
+        BUILT_IN.put(UUID.class, UUID::fromString);
+    }
+
+    private TypeConverters() {
+    }
+
+    /**
+     * Enregistre (ou remplace) le convertisseur d'un type.
+     */
+    public static <T> void register(Class<T> type, TypeConverter<? extends T> converter) {
+        if (type == null || converter == null) {
+            throw new IllegalArgumentException("TypeConverters: type et convertisseur obligatoires");
+        }
+        REGISTERED.put(type, converter);
+        BeanModel.clearCache();
+    }
+
+    /**
+     * Indique si un convertisseur enregistré par l'application existe pour ce type exact.
+     */
+    public static boolean isRegistered(Class<?> type) {
+        return REGISTERED.containsKey(type);
+    }
+
+    /**
+     * Résout le convertisseur d'un type (les types primitifs utilisent celui de leur enveloppe).
+     * @return le convertisseur, ou null si le type n'est pas convertible depuis une chaîne
+     */
+    public static TypeConverter<?> find(Class<?> type) {
+        TypeConverter<?> converter = REGISTERED.get(type);
+        if (converter != null) {
+            return converter;
+        }
+        Class<?> boxed = wrap(type);
+        converter = REGISTERED.get(boxed);
+        if (converter != null) {
+            return converter;
+        }
+        converter = BUILT_IN.get(boxed);
+        if (converter != null) {
+            return converter;
+        }
+        if (type.isEnum()) {
+            return enumConverter(type);
+        }
+        if (type.isArray()) {
+            return arrayConverter(type.getComponentType());
+        }
+        return null;
+    }
+
+    /**
+     * Convertit plusieurs valeurs vers un tableau de componentType (valeurs vides ignorées).
+     */
+    static Object toArray(Class<?> componentType, TypeConverter<?> elementConverter, String[] values) {
+        int count = 0;
+        for (String value : values) {
+            if (value != null && (componentType == String.class || !value.isEmpty())) {
+                count++;
+            }
+        }
+        Object array = Array.newInstance(componentType, count);
+        int index = 0;
+        for (String value : values) {
+            if (value != null && (componentType == String.class || !value.isEmpty())) {
+                Array.set(array, index++, elementConverter.convert(value));
+            }
+        }
+        return array;
+    }
+
+    private static TypeConverter<?> arrayConverter(Class<?> componentType) {
+        TypeConverter<?> elementConverter = find(componentType);
+        if (elementConverter == null) {
+            return null;
+        }
+        return value -> toArray(componentType, elementConverter, splitComma(value));
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static TypeConverter<?> enumConverter(Class<?> type) {
+        Class<? extends Enum> enumType = (Class<? extends Enum>) type;
+        return value -> Enum.valueOf(enumType, value.trim());
+    }
+
+    private static Character parseChar(String value) {
+        if (value.length() != 1) {
+            throw new IllegalArgumentException("Un seul caractère attendu: '" + value + "'");
+        }
+        return value.charAt(0);
+    }
+
+    private static String[] splitComma(String value) {
+        int count = 1;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == ',') {
+                count++;
+            }
+        }
+        String[] parts = new String[count];
+        int start = 0;
+        for (int i = 0; i < count; i++) {
+            int end = value.indexOf(',', start);
+            if (end < 0) {
+                end = value.length();
+            }
+            parts[i] = value.substring(start, end).trim();
+            start = end + 1;
+        }
+        return parts;
+    }
+
+    static Class<?> wrap(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        }
+        if (type == int.class) {
+            return Integer.class;
+        }
+        if (type == long.class) {
+            return Long.class;
+        }
+        if (type == double.class) {
+            return Double.class;
+        }
+        if (type == boolean.class) {
+            return Boolean.class;
+        }
+        if (type == float.class) {
+            return Float.class;
+        }
+        if (type == short.class) {
+            return Short.class;
+        }
+        if (type == byte.class) {
+            return Byte.class;
+        }
+        if (type == char.class) {
+            return Character.class;
+        }
+        return Void.class;
+    }
+}
@@ -0,0 +1,157 @@
+package itu.framework.bind;
+
+import itu.framework.multipart.MultipartParser;
+import itu.framework.multipart.MultipartRequest;
+import itu.framework.web.UploadFile;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.Part;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Accès paresseux aux fichiers uploadés d'une requête.
+ *
+ * Rien n'est lu tant qu'un ParameterBinder ne demande pas de fichier, et seulement si la
+ * requête est multipart/form-data : une requête GET ou un formulaire classique ne déclenche
+ * jamais getParts(). Un fichier demandé par son nom n'extrait que la part correspondante ;
+ * seule la Map complète (ou le repli "premier fichier") parcourt toutes les parts.
+ */
+public final class UploadedFiles {
+
+    /**
+     * Aucun fichier : utilisé pour les routes qui ne consomment pas d'upload (voir
+     * MethodInfo.isUploadConsumer).
+     */
+    public static final UploadedFiles NONE = new UploadedFiles(null, null);
+
+    private final HttpServletRequest request;
+    // Parts déjà converties par nom, et noms demandés sans fichier
+    private Map<String, UploadFile> extracted;
+    private Set<String> missing;
+    private HashMap<String, UploadFile> all;
+
+    private UploadedFiles(HttpServletRequest request, HashMap<String, UploadFile> files) {
+        this.request = request;
+        this.all = files;
+    }
+
+    /**
+     * @return l'accès paresseux aux fichiers de la requête, ou NONE si elle n'est pas multipart
+     */
+    public static UploadedFiles of(HttpServletRequest request) {
+        if (!MultipartParser.isMultipart(request.getContentType())) {
+            return NONE;
+        }
+        return new UploadedFiles(request, null);
+    }
+
+    /**
+     * Fichiers déjà lus par le parseur du framework (routes annotées @Multipart).
+     */
+    public static UploadedFiles of(MultipartRequest multipart) {
+        return new UploadedFiles(null, multipart.getFiles());
+    }
+
+    /**
+     * @return le fichier du champ name, ou null s'il est absent ou vide
+     */
+    public UploadFile get(String name) throws IOException, ServletException {
+        if (name == null) {
+            return null;
+        }
+        if (all != null) {
+            return all.get(name);
+        }
+        if (request == null) {
+            return null;
+        }
+        if (extracted != null && extracted.containsKey(name)) {
+            return extracted.get(name);
+        }
+        if (missing != null && missing.contains(name)) {
+            return null;
+        }
+
+        Part part = request.getPart(name);
+        UploadFile file = part != null && part.getSize() > 0 ? toUploadFile(part) : null;
+        if (file != null) {
+            if (extracted == null) {
+                extracted = new HashMap<>();
+            }
+            extracted.put(name, file);
+        } else {
+            if (missing == null) {
+                missing = new HashSet<>();
+            }
+            missing.add(name);
+        }
+        return file;
+    }
+
+    /**
+     * @return le premier fichier non vide de la requête, ou null. Les parts suivantes ne sont pas lues.
+     */
+    public UploadFile first() throws IOException, ServletException {
+        if (all != null) {
+            return all.isEmpty() ? null : all.values().iterator().next();
+        }
+        if (request == null) {
+            return null;
+        }
+        for (Part part : request.getParts()) {
+            if (part.getSize() > 0) {
+                return get(part.getName());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Le fichier du champ name, sinon le premier fichier disponible.
+     */
+    public UploadFile getOrFirst(String name) throws IOException, ServletException {
+        UploadFile file = get(name);
+        return file != null ? file : first();
+    }
+
+    /**
+     * @return tous les fichiers non vides, par nom de champ (toutes les parts sont extraites).
+     * Toujours une HashMap modifiable, le type attendu par les paramètres HashMap&lt;String, UploadFile&gt;.
+     */
+    public HashMap<String, UploadFile> all() throws IOException, ServletException {
+        if (all == null && request == null) {
+            return new HashMap<>();
+        }
+        if (all == null) {
+            HashMap<String, UploadFile> files = new LinkedHashMap<>();
+            for (Part part : request.getParts()) {
+                if (part.getSize() > 0) {
+                    UploadFile file = extracted != null ? extracted.get(part.getName()) : null;
+                    files.put(part.getName(), file != null ? file : toUploadFile(part));
+                }
+            }
+            all = files;
+        }
+        return all;
+    }
+
+    private static UploadFile toUploadFile(Part part) {
+        String submittedFileName = part.getSubmittedFileName();
+
+        // Extraire l'extension du nom de fichier
+        String extension = "";
+        if (submittedFileName != null && submittedFileName.contains(".")) {
+            extension = submittedFileName.substring(submittedFileName.lastIndexOf(".") + 1);
+        }
+
+        // Contenu laissé dans la Part (sur disque au-delà du fileSizeThreshold du conteneur)
+        return new UploadFile(submittedFileName, extension, part.getContentType(), part);
+    }
+}
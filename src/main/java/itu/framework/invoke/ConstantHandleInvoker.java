@@ -0,0 +1,42 @@
+package itu.framework.invoke;
+
+import java.lang.constant.ConstantDescs;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+
+/**
+ * Modèle des invokers MethodHandle : MethodHandleInvoker en définit une classe cachée par
+ * méthode de contrôleur, avec le handle adapté comme donnée de classe.
+ *
+ * Le handle est ainsi dans un champ static final, que le JIT traite comme une constante :
+ * invokeExact est lié directement à la méthode du contrôleur, qui peut être inlinée dans
+ * invoke(). Ce n'est pas le cas d'un handle rangé dans un champ d'instance.
+ *
+ * La classe elle-même n'est jamais instanciée (HANDLE y vaut null) : seules ses copies cachées le sont.
+ */
+final class ConstantHandleInvoker implements MethodInvoker {
+
+    private static final MethodHandle HANDLE = classData();
+
+    ConstantHandleInvoker() {
+    }
+
+    @Override
+    public Object invoke(Object target, Object[] args) throws Exception {
+        try {
+            return (Object) HANDLE.invokeExact(target, args);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    private static MethodHandle classData() {
+        try {
+            return MethodHandles.classData(MethodHandles.lookup(), ConstantDescs.DEFAULT_NAME, MethodHandle.class);
+        } catch (IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+}
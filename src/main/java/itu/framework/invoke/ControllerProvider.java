@@ -0,0 +1,174 @@
+package itu.framework.invoke;
+
+import itu.framework.annotation.Controller;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Fournit les instances d'un contrôleur selon son scope (voir {@link Controller#scope()}).
+ * Les fournisseurs sont créés au démarrage par FrameworkListener : les instances SINGLETON
+ * et POOLED existent donc avant la première requête.
+ *
+ * Chaque acquire() doit être suivi d'un release() avec la même instance.
+ */
+public abstract class ControllerProvider {
+
+    private final Class<?> controllerClass;
+
+    private ControllerProvider(Class<?> controllerClass) {
+        this.controllerClass = controllerClass;
+    }
+
+    public abstract Object acquire() throws Exception;
+
+    public void release(Object instance) {
+    }
+
+    public Class<?> getControllerClass() {
+        return controllerClass;
+    }
+
+    public abstract Controller.Scope getScope();
+
+    /**
+     * Crée le fournisseur d'un contrôleur à partir de son annotation @Controller.
+     * @throws IllegalArgumentException si le contrôleur n'a pas de constructeur sans argument
+     *         ou si son instanciation échoue
+     */
+    public static ControllerProvider forClass(Class<?> controllerClass) {
+        Controller annotation = controllerClass.getAnnotation(Controller.class);
+        Controller.Scope scope = annotation != null ? annotation.scope() : Controller.Scope.PROTOTYPE;
+        MethodHandle constructor = findConstructor(controllerClass);
+
+        switch (scope) {
+            case SINGLETON:
+                return new Singleton(controllerClass, newInstance(constructor, controllerClass));
+            case POOLED:
+                int poolSize = Math.max(1, annotation.poolSize());
+                Pooled pooled = new Pooled(controllerClass, constructor, poolSize);
+                for (int i = 0; i < poolSize; i++) {
+                    pooled.release(newInstance(constructor, controllerClass));
+                }
+                return pooled;
+            default:
+                return new Prototype(controllerClass, constructor);
+        }
+    }
+
+    private static MethodHandle findConstructor(Class<?> controllerClass) {
+        try {
+            Constructor<?> constructor = controllerClass.getDeclaredConstructor();
+            try {
+                constructor.setAccessible(true);
+            } catch (RuntimeException e) {
+                // Constructeur public : le lookup suffit
+            }
+            return MethodHandles.lookup().unreflectConstructor(constructor)
+                    .asType(MethodType.methodType(Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalArgumentException(
+                "[ControllerProvider] ERREUR: Le contrôleur " + controllerClass.getSimpleName() +
+                " doit avoir un constructeur accessible sans argument.", e);
+        }
+    }
+
+    private static Object newInstance(MethodHandle constructor, Class<?> controllerClass) {
+        try {
+            return (Object) constructor.invokeExact();
+        } catch (Throwable t) {
+            throw new IllegalArgumentException(
+                "[ControllerProvider] ERREUR: Impossible d'instancier " + controllerClass.getSimpleName() +
+                " au démarrage: " + t, t);
+        }
+    }
+
+    private static final class Singleton extends ControllerProvider {
+        private final Object instance;
+
+        Singleton(Class<?> controllerClass, Object instance) {
+            super(controllerClass);
+            this.instance = instance;
+        }
+
+        @Override
+        public Object acquire() {
+            return instance;
+        }
+
+        @Override
+        public Controller.Scope getScope() {
+            return Controller.Scope.SINGLETON;
+        }
+    }
+
+    private static final class Prototype extends ControllerProvider {
+        private final MethodHandle constructor;
+
+        Prototype(Class<?> controllerClass, MethodHandle constructor) {
+            super(controllerClass);
+            this.constructor = constructor;
+        }
+
+        @Override
+        public Object acquire() throws Exception {
+            try {
+                return (Object) constructor.invokeExact();
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        }
+
+        @Override
+        public Controller.Scope getScope() {
+            return Controller.Scope.PROTOTYPE;
+        }
+    }
+
+    /**
+     * Pool borné : si toutes les instances sont prises, une instance supplémentaire est créée
+     * pour ne jamais bloquer la requête, puis abandonnée au release si le pool est plein.
+     */
+    private static final class Pooled extends ControllerProvider {
+        private final MethodHandle constructor;
+        private final ArrayBlockingQueue<Object> pool;
+
+        Pooled(Class<?> controllerClass, MethodHandle constructor, int poolSize) {
+            super(controllerClass);
+            this.constructor = constructor;
+            this.pool = new ArrayBlockingQueue<>(poolSize);
+        }
+
+        @Override
+        public Object acquire() throws Exception {
+            Object instance = pool.poll();
+            if (instance != null) {
+                return instance;
+            }
+            try {
+                return (Object) constructor.invokeExact();
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        }
+
+        @Override
+        public void release(Object instance) {
+            if (instance != null) {
+                pool.offer(instance);
+            }
+        }
+
+        @Override
+        public Controller.Scope getScope() {
+            return Controller.Scope.POOLED;
+        }
+    }
+}
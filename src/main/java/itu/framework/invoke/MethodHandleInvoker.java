@@ -0,0 +1,93 @@
+package itu.framework.invoke;
+
+import itu.framework.log.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+
+/**
+ * Invoker basé sur un MethodHandle.
+ *
+ * Le handle (Controller, P1..Pn)R est adapté une fois pour toutes en (Object, Object[])Object :
+ * asType gère les casts et le boxing/unboxing des types primitifs, asSpreader répartit le tableau
+ * d'arguments. L'appel se fait ensuite par invokeExact, sans vérification d'accès ni site
+ * d'appel réflexif mégamorphique.
+ *
+ * create() place le handle dans une classe cachée (voir ConstantHandleInvoker) pour qu'il soit
+ * une constante pour le JIT. Si la classe modèle est introuvable (classloader sans accès aux
+ * ressources), le handle reste dans un champ d'instance : l'appel est correct, mais le JIT ne
+ * peut pas inliner la méthode du contrôleur.
+ */
+final class MethodHandleInvoker implements MethodInvoker {
+
+    private static final Logger LOG = Logger.get("MethodInvoker");
+
+    private static final MethodType INVOKER_TYPE =
+            MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    // Octets de ConstantHandleInvoker, lus une fois ; null si la ressource est introuvable
+    private static final byte[] TEMPLATE = readTemplate();
+
+    private final MethodHandle handle;
+
+    private MethodHandleInvoker(MethodHandle handle) {
+        this.handle = handle;
+    }
+
+    static MethodInvoker create(Method method) {
+        MethodHandle handle = adapt(method);
+        if (TEMPLATE != null) {
+            try {
+                MethodHandles.Lookup hidden = MethodHandles.lookup()
+                        .defineHiddenClassWithClassData(TEMPLATE, handle, true);
+                return (MethodInvoker) hidden.findConstructor(hidden.lookupClass(), MethodType.methodType(void.class))
+                        .invoke();
+            } catch (Throwable t) {
+                LOG.warn("Classe cachée impossible pour " + method.getDeclaringClass().getSimpleName() + "." +
+                         method.getName() + "() : handle en champ d'instance (" + t + ")");
+            }
+        }
+        return new MethodHandleInvoker(handle);
+    }
+
+    private static MethodHandle adapt(Method method) {
+        try {
+            method.setAccessible(true);
+        } catch (RuntimeException e) {
+            // Contrôleur public : le lookup suffit
+        }
+        try {
+            int arity = method.getParameterCount();
+            return MethodHandles.lookup().unreflect(method)
+                    .asType(MethodType.genericMethodType(arity + 1))
+                    .asSpreader(Object[].class, arity)
+                    .asType(INVOKER_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("[MethodInvoker] ERREUR: Impossible d'accéder à " +
+                    method.getDeclaringClass().getSimpleName() + "." + method.getName() + "()", e);
+        }
+    }
+
+    private static byte[] readTemplate() {
+        try (InputStream in = MethodHandleInvoker.class.getResourceAsStream("ConstantHandleInvoker.class")) {
+            return in != null ? in.readAllBytes() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public Object invoke(Object target, Object[] args) throws Exception {
+        try {
+            return (Object) handle.invokeExact(target, args);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package itu.framework.invoke;
+
+import java.lang.reflect.Method;
+
+/**
+ * Appel précompilé d'une méthode de contrôleur, construit une seule fois lors du scan.
+ *
+ * Les exceptions levées par le contrôleur sont propagées telles quelles
+ * (pas d'InvocationTargetException), quelle que soit la stratégie.
+ */
+public interface MethodInvoker {
+
+    /**
+     * Stratégie de construction des invokers, configurable dans web.xml (invocationStrategy).
+     */
+    enum Strategy {
+        /** MethodHandle adapté en (Object, Object[])Object, constant dans une classe cachée par méthode */
+        METHOD_HANDLE,
+        /** Method.invoke classique, conservé pour comparaison */
+        REFLECTION;
+
+        /**
+         * @param value "methodhandle" ou "reflection" (insensible à la casse), null = METHOD_HANDLE
+         */
+        public static Strategy parse(String value) {
+            if (value == null || value.trim().isEmpty()) {
+                return METHOD_HANDLE;
+            }
+            String normalized = value.trim().replace("_", "").replace("-", "").toLowerCase();
+            switch (normalized) {
+                case "methodhandle":
+                    return METHOD_HANDLE;
+                case "reflection":
+                    return REFLECTION;
+                default:
+                    throw new IllegalArgumentException("Stratégie d'invocation inconnue: '" + value +
+                                                       "' (attendu: methodhandle ou reflection)");
+            }
+        }
+    }
+
+    Object invoke(Object target, Object[] args) throws Exception;
+
+    /**
+     * Construit l'invoker d'une méthode selon la stratégie demandée.
+     */
+    static MethodInvoker of(Method method, Strategy strategy) {
+        if (strategy == Strategy.REFLECTION) {
+            return new ReflectionInvoker(method);
+        }
+        return MethodHandleInvoker.create(method);
+    }
+}
@@ -0,0 +1,37 @@
+package itu.framework.invoke;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Invoker par réflexion (Method.invoke).
+ */
+final class ReflectionInvoker implements MethodInvoker {
+
+    private final Method method;
+
+    ReflectionInvoker(Method method) {
+        this.method = method;
+        try {
+            method.setAccessible(true);
+        } catch (RuntimeException e) {
+            // Accès refusé par le module : Method.invoke fera les vérifications habituelles
+        }
+    }
+
+    @Override
+    public Object invoke(Object target, Object[] args) throws Exception {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package itu.framework.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Construction des arguments de la méthode du contrôleur (session, paramètres, POJO, fichiers).
+ */
+@Name("itu.framework.ArgumentBinding")
+@Label("Liaison des arguments")
+@Category({"Framework", "Dispatch"})
+@StackTrace(false)
+public class ArgumentBindingEvent extends FrameworkEvent {
+
+    @Label("Nombre d'arguments")
+    public int argumentCount;
+}
@@ -0,0 +1,19 @@
+package itu.framework.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Accès refusé par la règle @Authorized / @Role (réponse 403).
+ */
+@Name("itu.framework.AuthorizationDenied")
+@Label("Accès refusé")
+@Category({"Framework", "Dispatch"})
+@StackTrace(false)
+public class AuthorizationDeniedEvent extends FrameworkEvent {
+
+    @Label("Motif")
+    public String reason;
+}
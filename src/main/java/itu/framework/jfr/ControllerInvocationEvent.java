@@ -0,0 +1,19 @@
+package itu.framework.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Exécution de la méthode du contrôleur.
+ */
+@Name("itu.framework.ControllerInvocation")
+@Label("Appel du contrôleur")
+@Category({"Framework", "Dispatch"})
+@StackTrace(false)
+public class ControllerInvocationEvent extends FrameworkEvent {
+
+    @Label("Exception levée")
+    public String exception;
+}
@@ -0,0 +1,36 @@
+package itu.framework.jfr;
+
+import itu.framework.scan.ControllerScanner.MethodInfo;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base des événements JFR émis par FrontServlet pour une route résolue.
+ *
+ * Usage : begin() avant l'étape, end() après, puis remplir les champs et commit() seulement si
+ * shouldCommit() : quand l'événement est désactivé (ou sous son seuil), rien n'est calculé.
+ */
+@Category({"Framework", "Dispatch"})
+@StackTrace(false)
+public abstract class FrameworkEvent extends Event {
+
+    @Label("Route")
+    @Description("URL telle qu'annotée par @Url")
+    public String route;
+
+    @Label("Méthode du contrôleur")
+    @Description("Classe.méthode qui traite la route")
+    public String handler;
+
+    /**
+     * Renseigne route et handler à partir du mapping.
+     */
+    public void setRoute(MethodInfo methodInfo) {
+        this.route = methodInfo.getUrlPattern();
+        this.handler = methodInfo.getControllerClass().getName() + "." + methodInfo.getMethod().getName();
+    }
+}
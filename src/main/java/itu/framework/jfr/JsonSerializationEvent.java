@@ -0,0 +1,19 @@
+package itu.framework.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Sérialisation JSON du résultat d'une méthode @Json.
+ */
+@Name("itu.framework.JsonSerialization")
+@Label("Sérialisation JSON")
+@Category({"Framework", "Dispatch"})
+@StackTrace(false)
+public class JsonSerializationEvent extends FrameworkEvent {
+
+    @Label("Type du résultat")
+    public Class<?> resultType;
+}
@@ -0,0 +1,25 @@
+package itu.framework.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Recherche de la route correspondant à la requête (RouteRegistry.resolve).
+ */
+@Name("itu.framework.RouteResolution")
+@Label("Résolution de route")
+@Category({"Framework", "Dispatch"})
+@StackTrace(false)
+public class RouteResolutionEvent extends FrameworkEvent {
+
+    @Label("Méthode HTTP")
+    public String httpMethod;
+
+    @Label("Chemin")
+    public String path;
+
+    @Label("Route trouvée")
+    public boolean matched;
+}
@@ -0,0 +1,30 @@
+package itu.framework.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Lecture d'un corps multipart par le parseur du framework (@Multipart).
+ */
+@Name("itu.framework.UploadParsing")
+@Label("Lecture multipart")
+@Category({"Framework", "Dispatch"})
+@StackTrace(false)
+public class UploadParsingEvent extends FrameworkEvent {
+
+    @Label("Fichiers")
+    public int fileCount;
+
+    @Label("Champs texte")
+    public int fieldCount;
+
+    @Label("Taille des fichiers")
+    @DataAmount
+    public long fileBytes;
+
+    @Label("Erreur")
+    public String error;
+}
@@ -0,0 +1,19 @@
+package itu.framework.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Forward vers la vue d'un ModelView (rendu JSP compris).
+ */
+@Name("itu.framework.ViewForward")
+@Label("Forward vers la vue")
+@Category({"Framework", "Dispatch"})
+@StackTrace(false)
+public class ViewForwardEvent extends FrameworkEvent {
+
+    @Label("Vue")
+    public String view;
+}
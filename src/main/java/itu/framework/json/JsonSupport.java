@@ -0,0 +1,25 @@
+package itu.framework.json;
+
+import itu.framework.web.LocalDateAdapter;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.time.LocalDate;
+
+/**
+ * Instance Gson partagée par le framework (réponses @Json, métriques, corps JSON des requêtes).
+ *
+ * Gson est sans état après construction et met en cache ses TypeAdapter : une seule instance
+ * évite de les résoudre à nouveau d'un composant à l'autre.
+ */
+public final class JsonSupport {
+
+    public static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapter(LocalDate.class, new LocalDateAdapter())
+            .registerTypeAdapterFactory(new UploadFileAdapterFactory())
+            .create();
+
+    private JsonSupport() {
+    }
+}
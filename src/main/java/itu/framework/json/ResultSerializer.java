@@ -0,0 +1,150 @@
+package itu.framework.json;
+
+import itu.framework.web.JsonResponse;
+import itu.framework.web.ModelView;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sérialiseur JSON d'une méthode @Json, compilé par ControllerScanner à partir du type de retour
+ * générique de la méthode.
+ *
+ * Le TypeAdapter du type déclaré est résolu une seule fois au scan. L'enveloppe de succès
+ * (statut, code, message) est constante : elle est encodée une fois en octets UTF-8 et écrite
+ * telle quelle autour des données, sans objet JsonResponse ni réflexion sur ses champs.
+ * Le résultat produit est identique à gson.toJson(JsonResponse.success(200, "Résultat retourné", data)) :
+ * champ data absent si null, champs error et count absents.
+ */
+public final class ResultSerializer {
+
+    private static final byte[] SUCCESS_PREFIX = utf8("{\"statut\":\"success\",\"code\":200,\"message\":\"" +
+                                                      "Résultat retourné\"");
+    private static final byte[] DATA_FIELD = utf8(",\"data\":");
+    private static final byte END_OBJECT = '}';
+
+    private final Gson gson;
+    // Type de retour brut de la méthode
+    private final Class<?> declaredClass;
+    // Adapter du type déclaré, null si le type effectif n'est connu qu'à l'exécution
+    private final TypeAdapter<Object> declaredAdapter;
+
+    private ResultSerializer(Gson gson, Class<?> declaredClass, TypeAdapter<Object> declaredAdapter) {
+        this.gson = gson;
+        this.declaredClass = declaredClass;
+        this.declaredAdapter = declaredAdapter;
+    }
+
+    /**
+     * Compile le sérialiseur d'une méthode @Json.
+     */
+    public static ResultSerializer forMethod(Method method) {
+        return forType(JsonSupport.GSON, method.getReturnType(), method.getGenericReturnType());
+    }
+
+    @SuppressWarnings("unchecked")
+    static ResultSerializer forType(Gson gson, Class<?> returnType, Type genericReturnType) {
+        TypeAdapter<Object> adapter = null;
+        if (returnType != Object.class && returnType != void.class
+                && returnType != JsonResponse.class && returnType != ModelView.class) {
+            try {
+                adapter = (TypeAdapter<Object>) gson.getAdapter(TypeToken.get(genericReturnType));
+            } catch (RuntimeException e) {
+                // Type non résoluble au scan (variable de type...) : adapter du type effectif à l'exécution
+                adapter = null;
+            }
+        }
+        return new ResultSerializer(gson, returnType, adapter);
+    }
+
+    /**
+     * Écrit la réponse JSON du résultat dans out (flushé, non fermé).
+     * @param bufferSize Taille du tampon d'écriture en octets
+     */
+    public void write(OutputStream out, Object result, int bufferSize) throws IOException {
+        BufferedOutputStream buffered = new BufferedOutputStream(out, bufferSize);
+
+        // JsonResponse construite par le contrôleur : sérialisée telle quelle
+        if (result instanceof JsonResponse) {
+            JsonWriter jsonWriter = gson.newJsonWriter(utf8Writer(buffered, bufferSize));
+            gson.toJson(result, JsonResponse.class, jsonWriter);
+            jsonWriter.flush();
+            return;
+        }
+
+        Object data = result;
+        if (result instanceof ModelView) {
+            HashMap<String, Object> modelData = ((ModelView) result).getData();
+            data = modelData == null || modelData.isEmpty() ? null : modelData;
+        }
+
+        buffered.write(SUCCESS_PREFIX);
+        if (data == null) {
+            buffered.write(END_OBJECT);
+            buffered.flush();
+            return;
+        }
+        buffered.write(DATA_FIELD);
+        // La fin de l'enveloppe passe par le même Writer : un seul flush, donc une seule
+        // écriture vers le conteneur
+        Writer writer = utf8Writer(buffered, bufferSize);
+        JsonWriter jsonWriter = gson.newJsonWriter(writer);
+        adapterFor(data).write(jsonWriter, data);
+        writer.write(END_OBJECT);
+        writer.flush();
+    }
+
+    /**
+     * Adapter du type déclaré si la valeur en est exactement une instance (ou si le type déclaré
+     * est une collection ou une Map, dont les éléments sont de toute façon résolus à l'exécution) ;
+     * sinon adapter du type effectif, comme Gson le fait pour un champ de type Object.
+     */
+    @SuppressWarnings("unchecked")
+    private TypeAdapter<Object> adapterFor(Object data) {
+        if (declaredAdapter != null) {
+            Class<?> runtimeClass = data.getClass();
+            if (runtimeClass == declaredClass || isContainer(declaredClass) || isBoxOf(declaredClass, runtimeClass)) {
+                return declaredAdapter;
+            }
+        }
+        return (TypeAdapter<Object>) gson.getAdapter(data.getClass());
+    }
+
+    private static boolean isContainer(Class<?> type) {
+        return (Collection.class.isAssignableFrom(type) || Map.class.isAssignableFrom(type))
+                && (type.isInterface() || Modifier.isAbstract(type.getModifiers()));
+    }
+
+    private static boolean isBoxOf(Class<?> declared, Class<?> runtimeClass) {
+        return declared.isPrimitive() && runtimeClass.getName().startsWith("java.lang.");
+    }
+
+    /**
+     * JsonWriter écrit token par token ; OutputStreamWriter alloue un tableau et un CharBuffer à
+     * chaque write(String). Le BufferedWriter copie les tokens dans son tampon et n'encode que
+     * des blocs de bufferSize caractères.
+     */
+    private static Writer utf8Writer(OutputStream out, int bufferSize) {
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), bufferSize);
+    }
+
+    private static byte[] utf8(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
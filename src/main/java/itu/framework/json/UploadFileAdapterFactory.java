@@ -0,0 +1,43 @@
+package itu.framework.json;
+
+import itu.framework.web.UploadFile;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Sérialise un UploadFile avec son contenu, même s'il est encore dans une Part ou un fichier
+ * temporaire : getContent() est appelé avant l'écriture, puis le TypeAdapter réflexif de Gson
+ * produit le même JSON qu'un UploadFile construit depuis un byte[].
+ */
+final class UploadFileAdapterFactory implements TypeAdapterFactory {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        if (type.getRawType() != UploadFile.class) {
+            return null;
+        }
+        TypeAdapter<UploadFile> delegate = gson.getDelegateAdapter(this, TypeToken.get(UploadFile.class));
+        return (TypeAdapter<T>) new TypeAdapter<UploadFile>() {
+            @Override
+            public void write(JsonWriter out, UploadFile value) throws IOException {
+                if (value != null) {
+                    value.getContent();
+                }
+                delegate.write(out, value);
+            }
+
+            @Override
+            public UploadFile read(JsonReader in) throws IOException {
+                return delegate.read(in);
+            }
+        };
+    }
+}
@@ -1,80 +1,235 @@
 package itu.framework.listener;
 
+import itu.framework.invoke.ControllerProvider;
+import itu.framework.invoke.MethodInvoker;
+import itu.framework.log.Level;
+import itu.framework.log.Logger;
+import itu.framework.metrics.SlowRequestLog;
+import itu.framework.routing.RouteCache;
+import itu.framework.routing.RouteRegistry;
 import itu.framework.scan.ControllerScanner;
+import itu.framework.security.RoleIndex;
 import jakarta.servlet.ServletContext;
 import jakarta.servlet.ServletContextEvent;
 import jakarta.servlet.ServletContextListener;
 import jakarta.servlet.annotation.WebListener;
 
+import java.util.HashMap;
 import java.util.Map;
 
 /**
  * Listener qui s'exécute au démarrage de l'application
- * Il scanne les contrôleurs et sauvegarde les mappings dans le ServletContext
+ * Il scanne les contrôleurs et publie un FrameworkRuntime (mappings, routes, autorisations)
+ * dans le ServletContext
  * 
  * @WebListener permet de déclarer ce listener sans avoir besoin de web.xml
  */
 @WebListener
 public class FrameworkListener implements ServletContextListener {
     
-    public static final String MAPPINGS_KEY = "urlMappings";
+    public static final String RUNTIME_KEY = "frameworkRuntime";
     public static final String SCAN_PACKAGE_PARAM = "scanPackage";
     public static final String AUTH_ATTRIBUTE_KEY = "authAttribute";
     public static final String ROLE_ATTRIBUTE_KEY = "roleAttribute";
+    public static final String ROUTE_CACHE_SIZE_PARAM = "routeCacheSize";
+    public static final String INVOCATION_STRATEGY_PARAM = "invocationStrategy";
+    public static final String LOG_LEVEL_PARAM = "logLevel";
+    public static final String METRICS_URL_PARAM = "metricsUrl";
+    public static final String PHASE_TIMING_PARAM = "phaseTiming";
+    public static final String SERVER_TIMING_PARAM = "serverTiming";
+    public static final String SLOW_REQUEST_THRESHOLD_PARAM = "slowRequestThreshold";
+    public static final String SLOW_REQUEST_CAPACITY_PARAM = "slowRequestCapacity";
+    public static final String SLOW_REQUEST_URL_PARAM = "slowRequestUrl";
+    public static final String JSON_BUFFER_SIZE_PARAM = "jsonBufferSize";
+    public static final String JSON_BODY_MAX_SIZE_PARAM = "jsonBodyMaxSize";
+    
+    private static final Logger LOG = Logger.get("FrameworkListener");
     
     @Override
     public void contextInitialized(ServletContextEvent sce) {
-        System.out.println("\n========================================");
-        System.out.println("    FRAMEWORK INITIALIZATION START");
-        System.out.println("========================================");
-        
         ServletContext servletContext = sce.getServletContext();
         
+        // logLevel (optionnel) : DEBUG, INFO (défaut), WARN, ERROR ou OFF
+        Logger.setLevel(Level.parse(servletContext.getInitParameter(LOG_LEVEL_PARAM), Level.INFO));
+        LOG.info("========== FRAMEWORK INITIALIZATION START ==========");
+        
         // Récupération du package à scanner depuis web.xml
         String scanPackage = servletContext.getInitParameter(SCAN_PACKAGE_PARAM);
         
         if (scanPackage == null || scanPackage.trim().isEmpty()) {
-            System.err.println("[FrameworkListener] ERREUR: Le paramètre '" + SCAN_PACKAGE_PARAM + 
-                             "' n'est pas défini dans web.xml");
-            System.err.println("[FrameworkListener] Veuillez ajouter dans web.xml:");
-            System.err.println("  <context-param>");
-            System.err.println("    <param-name>" + SCAN_PACKAGE_PARAM + "</param-name>");
-            System.err.println("    <param-value>votre.package.controllers</param-value>");
-            System.err.println("  </context-param>");
+            LOG.error("ERREUR: Le paramètre '" + SCAN_PACKAGE_PARAM + "' n'est pas défini dans web.xml\n" +
+                      "Veuillez ajouter dans web.xml:\n" +
+                      "  <context-param>\n" +
+                      "    <param-name>" + SCAN_PACKAGE_PARAM + "</param-name>\n" +
+                      "    <param-value>votre.package.controllers</param-value>\n" +
+                      "  </context-param>");
             return;
         }
         
-        System.out.println("[FrameworkListener] Package à scanner: " + scanPackage);
+        LOG.info("Package à scanner: " + scanPackage);
+        
+        FrameworkRuntime runtime = buildRuntime(servletContext, scanPackage);
         
+        // Publication de l'instantané : FrontServlet le récupère une seule fois dans init().
+        // Les mappings se consultent par getRuntime(servletContext).getMappings()
+        servletContext.setAttribute(RUNTIME_KEY, runtime);
+        
+        LOG.info(runtime.getMappings().size() + " mapping(s) sauvegardé(s) dans ServletContext");
+        LOG.info("========== FRAMEWORK INITIALIZATION COMPLETE =========");
+    }
+    
+    /**
+     * @return l'instantané publié par le listener, ou null si le framework n'est pas initialisé
+     */
+    public static FrameworkRuntime getRuntime(ServletContext servletContext) {
+        return (FrameworkRuntime) servletContext.getAttribute(RUNTIME_KEY);
+    }
+    
+    /**
+     * Scanne les contrôleurs et construit un instantané complet de la configuration.
+     */
+    private static FrameworkRuntime buildRuntime(ServletContext servletContext, String scanPackage) {
         // Récupération des paramètres d'autorisation depuis web.xml (init-param du servlet)
         String authAttribute = servletContext.getInitParameter(AUTH_ATTRIBUTE_KEY);
         String roleAttribute = servletContext.getInitParameter(ROLE_ATTRIBUTE_KEY);
         
         if (authAttribute != null && !authAttribute.trim().isEmpty()) {
-            servletContext.setAttribute(AUTH_ATTRIBUTE_KEY, authAttribute);
-            System.out.println("[FrameworkListener] Auth attribute configuré: " + authAttribute);
+            LOG.info("Auth attribute configuré: " + authAttribute);
         }
         
         if (roleAttribute != null && !roleAttribute.trim().isEmpty()) {
-            servletContext.setAttribute(ROLE_ATTRIBUTE_KEY, roleAttribute);
-            System.out.println("[FrameworkListener] Role attribute configuré: " + roleAttribute);
+            LOG.info("Role attribute configuré: " + roleAttribute);
         }
         
         // Scan des contrôleurs et récupération des mappings
         // Map avec clé = "METHOD:URL" et valeur = MethodInfo (classe + méthode)
-        Map<String, ControllerScanner.MethodInfo> mappings = ControllerScanner.scanControllers(scanPackage);
+        // invocationStrategy (optionnel) : "methodhandle" (défaut) ou "reflection" pour comparer
+        MethodInvoker.Strategy invocationStrategy =
+            MethodInvoker.Strategy.parse(servletContext.getInitParameter(INVOCATION_STRATEGY_PARAM));
+        LOG.info("Stratégie d'invocation: " + invocationStrategy);
+        Map<String, ControllerScanner.MethodInfo> mappings = ControllerScanner.scanControllers(scanPackage, invocationStrategy);
+        
+        // Instanciation des contrôleurs selon leur scope : SINGLETON et POOLED sont créés dès maintenant
+        Map<Class<?>, ControllerProvider> providers = new HashMap<>();
+        for (ControllerScanner.MethodInfo info : mappings.values()) {
+            info.setControllerProvider(providers.computeIfAbsent(info.getControllerClass(), ControllerProvider::forClass));
+        }
+        for (ControllerProvider provider : providers.values()) {
+            LOG.info("Contrôleur " + provider.getControllerClass().getSimpleName() + ": " + provider.getScope());
+        }
+        
+        // Index commun des rôles : les masques des règles d'accès et des sessions sont comparables
+        RoleIndex roleIndex = ControllerScanner.indexRoles(mappings);
+        if (roleIndex.size() > 0) {
+            LOG.info("Rôles déclarés: " + roleIndex.getRoleNames());
+        }
+        
+        // Registre des routes (une table par méthode HTTP), construit une seule fois
+        // routeCacheSize (optionnel) : taille du cache LRU des URL dynamiques, par méthode HTTP
+        int routeCacheSize = readIntParameter(servletContext, ROUTE_CACHE_SIZE_PARAM, 0);
+        RouteRegistry routeRegistry = ControllerScanner.buildRouteRegistry(mappings, routeCacheSize);
+        if (routeCacheSize > 0) {
+            LOG.info("Cache des routes dynamiques: " + routeCacheSize + " entrée(s) par méthode HTTP");
+        }
         
-        // Sauvegarde des mappings dans le ServletContext
-        servletContext.setAttribute(MAPPINGS_KEY, mappings);
+        // metricsUrl (optionnel) : URL des métriques des routes (ex: /metrics), désactivée par défaut
+        String metricsUrl = servletContext.getInitParameter(METRICS_URL_PARAM);
+        // phaseTiming / serverTiming (optionnels, false par défaut) : chronométrage des étapes,
+        // et en-tête Server-Timing dans les réponses
+        boolean phaseTiming = readBooleanParameter(servletContext, PHASE_TIMING_PARAM);
+        boolean serverTiming = readBooleanParameter(servletContext, SERVER_TIMING_PARAM);
         
-        System.out.println("[FrameworkListener] " + mappings.size() + " mapping(s) sauvegardé(s) dans ServletContext");
-        System.out.println("========================================");
-        System.out.println("    FRAMEWORK INITIALIZATION COMPLETE");
-        System.out.println("========================================\n");
+        // slowRequestThreshold (optionnel, ms, 0 par défaut : désactivé) : seuil des requêtes lentes,
+        // remplaçable par @SlowThreshold sur une méthode ; slowRequestCapacity : taille du journal (128)
+        long slowThreshold = readIntParameter(servletContext, SLOW_REQUEST_THRESHOLD_PARAM, 0);
+        SlowRequestLog slowRequestLog = null;
+        if (slowThreshold > 0 || hasSlowThreshold(mappings)) {
+            slowRequestLog = new SlowRequestLog(readIntParameter(servletContext, SLOW_REQUEST_CAPACITY_PARAM, 128));
+        }
+        
+        FrameworkRuntime runtime = new FrameworkRuntime.Builder()
+                .mappings(mappings)
+                .routeRegistry(routeRegistry)
+                .authAttribute(authAttribute)
+                .roleAttribute(roleAttribute)
+                .roleIndex(roleIndex)
+                .metricsUrl(metricsUrl)
+                .phaseTiming(phaseTiming)
+                .serverTiming(serverTiming)
+                .slowThresholdMillis(slowThreshold)
+                .slowRequestLog(slowRequestLog)
+                .slowRequestUrl(servletContext.getInitParameter(SLOW_REQUEST_URL_PARAM))
+                // jsonBufferSize (optionnel, octets) : tampon d'écriture en flux des réponses @Json
+                .jsonBufferSize(readIntParameter(servletContext, JSON_BUFFER_SIZE_PARAM, FrameworkRuntime.DEFAULT_JSON_BUFFER_SIZE))
+                // jsonBodyMaxSize (optionnel, octets, 2 Mo par défaut, <= 0 : illimité) : corps JSON des requêtes
+                .jsonBodyMaxSize(readIntParameter(servletContext, JSON_BODY_MAX_SIZE_PARAM,
+                                                  (int) FrameworkRuntime.DEFAULT_JSON_BODY_MAX_SIZE))
+                .build();
+        if (runtime.getMetricsUrl() != null) {
+            LOG.info("Métriques des routes exposées sur: " + runtime.getMetricsUrl());
+        }
+        if (slowRequestLog != null) {
+            LOG.info("Détection des requêtes lentes: seuil par défaut " + slowThreshold + " ms, " +
+                     slowRequestLog.getCapacity() + " entrée(s)" +
+                     (runtime.getSlowRequestUrl() != null ? ", exposées sur: " + runtime.getSlowRequestUrl() : ""));
+        }
+        if (runtime.isPhaseTiming()) {
+            LOG.info("Chronométrage des étapes activé" + (runtime.isServerTiming() ? " (en-tête Server-Timing)" : ""));
+        }
+        return runtime;
+    }
+    
+    /**
+     * Lit un paramètre entier de web.xml (context-param), avec une valeur par défaut.
+     */
+    private static int readIntParameter(ServletContext servletContext, String name, int defaultValue) {
+        String value = servletContext.getInitParameter(name);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            LOG.error("ERREUR: Le paramètre '" + name + "' doit être un entier (valeur: " +
+                      value + "), utilisation de " + defaultValue);
+            return defaultValue;
+        }
+    }
+    
+    /**
+     * @return true si au moins une méthode a un seuil @SlowThreshold actif
+     */
+    private static boolean hasSlowThreshold(Map<String, ControllerScanner.MethodInfo> mappings) {
+        for (ControllerScanner.MethodInfo info : mappings.values()) {
+            if (info.getSlowThresholdMillis() > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Lit un paramètre booléen de web.xml (context-param) : true uniquement pour "true".
+     */
+    private static boolean readBooleanParameter(ServletContext servletContext, String name) {
+        String value = servletContext.getInitParameter(name);
+        return value != null && Boolean.parseBoolean(value.trim());
     }
     
     @Override
     public void contextDestroyed(ServletContextEvent sce) {
-        System.out.println("[FrameworkListener] Application arrêtée");
+        FrameworkRuntime runtime = getRuntime(sce.getServletContext());
+        if (runtime != null) {
+            RouteRegistry registry = runtime.getRouteRegistry();
+            for (String httpMethod : registry.getHttpMethods()) {
+                RouteCache cache = registry.getRouteCache(httpMethod);
+                if (cache != null) {
+                    LOG.info(httpMethod + " " + cache);
+                }
+            }
+        }
+        LOG.info("Application arrêtée");
+        // Vide le tampon et arrête le thread d'écriture (pas de thread orphelin au redéploiement)
+        Logger.shutdown();
     }
 }
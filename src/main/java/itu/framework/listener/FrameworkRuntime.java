@@ -0,0 +1,247 @@
+package itu.framework.listener;
+
+import itu.framework.routing.RouteRegistry;
+import itu.framework.metrics.SlowRequestLog;
+import itu.framework.scan.ControllerScanner.MethodInfo;
+import itu.framework.security.RoleIndex;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Instantané immuable de la configuration du framework : registre des routes
+ * et configuration d'autorisation (web.xml).
+ *
+ * Construit par FrameworkListener et publié dans le ServletContext (clé
+ * FrameworkListener.RUNTIME_KEY). FrontServlet le récupère une seule fois dans init() :
+ * les requêtes ne lisent ensuite qu'un champ, sans accès aux attributs du conteneur.
+ */
+public final class FrameworkRuntime {
+
+    public static final int DEFAULT_JSON_BUFFER_SIZE = 8192;
+    public static final long DEFAULT_JSON_BODY_MAX_SIZE = 2L * 1024 * 1024;
+
+    private final Map<String, MethodInfo> mappings;
+    private final RouteRegistry routeRegistry;
+    private final String authAttribute;
+    private final String roleAttribute;
+    private final RoleIndex roleIndex;
+    private final String metricsUrl;
+    private final boolean phaseTiming;
+    private final boolean serverTiming;
+    private final long slowThresholdMillis;
+    private final SlowRequestLog slowRequestLog;
+    private final String slowRequestUrl;
+    private final int jsonBufferSize;
+    private final long jsonBodyMaxSize;
+
+    private FrameworkRuntime(Builder builder) {
+        this.mappings = Collections.unmodifiableMap(builder.mappings);
+        this.routeRegistry = builder.routeRegistry;
+        this.authAttribute = builder.authAttribute;
+        this.roleAttribute = builder.roleAttribute;
+        this.roleIndex = builder.roleIndex;
+        this.metricsUrl = builder.metricsUrl;
+        this.phaseTiming = builder.phaseTiming || builder.serverTiming;
+        this.serverTiming = builder.serverTiming;
+        this.slowThresholdMillis = builder.slowThresholdMillis;
+        this.slowRequestLog = builder.slowRequestLog;
+        this.slowRequestUrl = builder.slowRequestUrl;
+        this.jsonBufferSize = builder.jsonBufferSize;
+        this.jsonBodyMaxSize = builder.jsonBodyMaxSize;
+    }
+
+    /**
+     * @return les mappings "METHOD:URL" -> MethodInfo (lecture seule)
+     */
+    public Map<String, MethodInfo> getMappings() {
+        return mappings;
+    }
+
+    public RouteRegistry getRouteRegistry() {
+        return routeRegistry;
+    }
+
+    /**
+     * @return le nom de l'attribut de session d'authentification, ou null si non configuré
+     */
+    public String getAuthAttribute() {
+        return authAttribute;
+    }
+
+    /**
+     * @return le nom de l'attribut de session contenant le rôle, ou null si non configuré
+     */
+    public String getRoleAttribute() {
+        return roleAttribute;
+    }
+
+    /**
+     * @return l'index des rôles cités par @Role (numéros valables pour ce runtime uniquement)
+     */
+    public RoleIndex getRoleIndex() {
+        return roleIndex;
+    }
+
+    /**
+     * @return l'URL (relative au contexte) qui expose les métriques des routes, ou null si désactivée
+     */
+    public String getMetricsUrl() {
+        return metricsUrl;
+    }
+
+    /**
+     * @return true si les étapes de chaque requête sont chronométrées (histogrammes par route)
+     */
+    public boolean isPhaseTiming() {
+        return phaseTiming;
+    }
+
+    /**
+     * @return true si les durées des étapes sont renvoyées dans l'en-tête Server-Timing
+     */
+    public boolean isServerTiming() {
+        return serverTiming;
+    }
+
+    /**
+     * @return le seuil de requête lente par défaut en millisecondes (0 : désactivé)
+     */
+    public long getSlowThresholdMillis() {
+        return slowThresholdMillis;
+    }
+
+    /**
+     * @return le journal des requêtes lentes, ou null si aucune route n'a de seuil
+     */
+    public SlowRequestLog getSlowRequestLog() {
+        return slowRequestLog;
+    }
+
+    /**
+     * @return l'URL (relative au contexte) qui expose les requêtes lentes, ou null si désactivée
+     */
+    public String getSlowRequestUrl() {
+        return slowRequestUrl;
+    }
+
+    /**
+     * @return la taille en octets du tampon d'écriture des réponses JSON
+     */
+    public int getJsonBufferSize() {
+        return jsonBufferSize;
+    }
+
+    /**
+     * @return la taille maximale d'un corps de requête JSON en octets (&lt;= 0 : illimitée)
+     */
+    public long getJsonBodyMaxSize() {
+        return jsonBodyMaxSize;
+    }
+
+    public static final class Builder {
+        private Map<String, MethodInfo> mappings = Collections.emptyMap();
+        private RouteRegistry routeRegistry;
+        private String authAttribute;
+        private String roleAttribute;
+        private RoleIndex roleIndex = RoleIndex.of(Collections.emptySet());
+        private String metricsUrl;
+        private boolean phaseTiming;
+        private boolean serverTiming;
+        private long slowThresholdMillis;
+        private SlowRequestLog slowRequestLog;
+        private String slowRequestUrl;
+        private int jsonBufferSize = DEFAULT_JSON_BUFFER_SIZE;
+        private long jsonBodyMaxSize = DEFAULT_JSON_BODY_MAX_SIZE;
+
+        public Builder mappings(Map<String, MethodInfo> mappings) {
+            this.mappings = mappings;
+            return this;
+        }
+
+        public Builder routeRegistry(RouteRegistry routeRegistry) {
+            this.routeRegistry = routeRegistry;
+            return this;
+        }
+
+        public Builder authAttribute(String authAttribute) {
+            this.authAttribute = blankToNull(authAttribute);
+            return this;
+        }
+
+        public Builder roleAttribute(String roleAttribute) {
+            this.roleAttribute = blankToNull(roleAttribute);
+            return this;
+        }
+
+        public Builder roleIndex(RoleIndex roleIndex) {
+            this.roleIndex = roleIndex;
+            return this;
+        }
+
+        public Builder metricsUrl(String metricsUrl) {
+            this.metricsUrl = toContextPath(metricsUrl);
+            return this;
+        }
+
+        public Builder slowThresholdMillis(long slowThresholdMillis) {
+            this.slowThresholdMillis = Math.max(slowThresholdMillis, 0);
+            return this;
+        }
+
+        public Builder slowRequestLog(SlowRequestLog slowRequestLog) {
+            this.slowRequestLog = slowRequestLog;
+            return this;
+        }
+
+        public Builder slowRequestUrl(String slowRequestUrl) {
+            this.slowRequestUrl = toContextPath(slowRequestUrl);
+            return this;
+        }
+
+        public Builder phaseTiming(boolean phaseTiming) {
+            this.phaseTiming = phaseTiming;
+            return this;
+        }
+
+        /**
+         * Active aussi le chronométrage des étapes.
+         */
+        public Builder serverTiming(boolean serverTiming) {
+            this.serverTiming = serverTiming;
+            return this;
+        }
+
+        /**
+         * @param jsonBufferSize Taille en octets (&lt;= 0 : valeur par défaut, 8 Ko)
+         */
+        public Builder jsonBufferSize(int jsonBufferSize) {
+            this.jsonBufferSize = jsonBufferSize > 0 ? jsonBufferSize : DEFAULT_JSON_BUFFER_SIZE;
+            return this;
+        }
+
+        /**
+         * @param jsonBodyMaxSize Taille en octets (&lt;= 0 : illimitée)
+         */
+        public Builder jsonBodyMaxSize(long jsonBodyMaxSize) {
+            this.jsonBodyMaxSize = jsonBodyMaxSize;
+            return this;
+        }
+
+        public FrameworkRuntime build() {
+            if (routeRegistry == null) {
+                throw new IllegalStateException("FrameworkRuntime: routeRegistry obligatoire");
+            }
+            return new FrameworkRuntime(this);
+        }
+
+        private static String toContextPath(String value) {
+            String url = blankToNull(value);
+            return url == null || url.startsWith("/") ? url : "/" + url;
+        }
+
+        private static String blankToNull(String value) {
+            return value == null || value.trim().isEmpty() ? null : value.trim();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package itu.framework.log;
+
+import java.util.Locale;
+
+/**
+ * Niveaux de journalisation, du plus bavard au plus grave.
+ * OFF désactive toute sortie.
+ */
+public enum Level {
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR,
+    OFF;
+
+    /**
+     * Lit la valeur du paramètre logLevel de web.xml (insensible à la casse).
+     * @return le niveau, ou defaultLevel si la valeur est absente ou inconnue
+     */
+    public static Level parse(String value, Level defaultLevel) {
+        if (value == null || value.trim().isEmpty()) {
+            return defaultLevel;
+        }
+        try {
+            return Level.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return defaultLevel;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package itu.framework.log;
+
+import java.io.PrintStream;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Tampon circulaire borné entre les threads qui journalisent et un thread d'écriture unique.
+ *
+ * Dépôt sans verrou : un producteur réserve une case par compareAndSet sur tail puis y publie
+ * l'événement ; le thread d'écriture lit les cases dans l'ordre, les vide et avance head.
+ * Tampon plein : le message est abandonné et compté (droppedCount), jamais attendu ; le nombre
+ * de messages perdus est signalé dans la sortie dès que de la place se libère.
+ *
+ * Le thread d'écriture dort (park) tant que le tampon est vide ; le producteur qui publie un
+ * événement pendant ce sommeil le réveille (unpark).
+ *
+ * Le thread d'écriture démarre au premier message. Après shutdown(), il n'est jamais relancé :
+ * un thread créé après l'arrêt de l'application retiendrait son classloader, et un second
+ * lecteur pourrait coexister avec l'ancien si celui-ci n'a pas fini. Les messages suivants sont
+ * écrits directement par le thread appelant, de même que ceux publiés pendant l'arrêt, après la
+ * dernière lecture du thread d'écriture.
+ */
+final class LogDispatcher {
+
+    static final LogDispatcher INSTANCE = new LogDispatcher(8192);
+
+    private static final DateTimeFormatter TIME_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    private final AtomicReferenceArray<Event> slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    // Écrit par le thread d'écriture seul, puis après l'arrêt sous le verrou (drainAfterStop)
+    private volatile long head;
+    private final LongAdder dropped = new LongAdder();
+    private long reportedDrops;
+
+    private static final int NEW = 0;
+    private static final int RUNNING = 1;
+    private static final int STOPPED = 2;
+
+    private volatile Thread writer;
+    private volatile int state = NEW;
+    // true pendant que le thread d'écriture dort, tampon vide
+    private volatile boolean parked;
+
+    private LogDispatcher(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    void enqueue(Level level, String logger, String message, Throwable error) {
+        if (state != RUNNING) {
+            if (state == NEW) {
+                start();
+            }
+            if (state == STOPPED) {
+                // Application arrêtée : écriture synchrone, sans thread de fond
+                write(new Event(System.currentTimeMillis(), level, logger, message, error));
+                return;
+            }
+        }
+        Event event = new Event(System.currentTimeMillis(), level, logger, message, error);
+        while (true) {
+            long claimed = tail.get();
+            if (claimed - head >= slots.length()) {
+                dropped.increment();
+                return;
+            }
+            if (tail.compareAndSet(claimed, claimed + 1)) {
+                slots.set((int) (claimed & mask), event);
+                break;
+            }
+        }
+        if (parked) {
+            LockSupport.unpark(writer);
+        }
+        if (state == STOPPED) {
+            // Arrêt pendant la publication : le thread d'écriture a pu faire sa dernière lecture avant
+            drainAfterStop();
+        }
+    }
+
+    long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    private synchronized void start() {
+        if (state != NEW) {
+            return;
+        }
+        Thread thread = new Thread(this::drainLoop, "framework-log-writer");
+        thread.setDaemon(true);
+        writer = thread;
+        state = RUNNING;
+        thread.start();
+    }
+
+    synchronized void shutdown() {
+        int previous = state;
+        state = STOPPED;
+        if (previous != RUNNING) {
+            return;
+        }
+        LockSupport.unpark(writer);
+        try {
+            writer.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Écrit les événements restés dans le tampon après l'arrêt. Le verrou attend la fin de
+     * shutdown() et sérialise les producteurs, seuls lecteurs une fois le thread d'écriture terminé.
+     */
+    private synchronized void drainAfterStop() {
+        Thread thread = writer;
+        if (thread != null) {
+            // Si join() a expiré dans shutdown(), le thread d'écriture lit encore le tampon
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        drain();
+    }
+
+    private void drainLoop() {
+        while (state == RUNNING) {
+            if (drain() == 0) {
+                System.out.flush();
+                System.err.flush();
+                parked = true;
+                // Relecture après parked : un événement publié avant est vu ici, un événement
+                // publié après voit parked et réveille le thread
+                if (slots.get((int) (head & mask)) == null && state == RUNNING) {
+                    LockSupport.park(this);
+                }
+                parked = false;
+            }
+        }
+        // Arrêt : écrire ce qui est publié. Les cases réservées en cours de publication sont
+        // écrites par leur producteur, qui voit l'état STOPPED (drainAfterStop)
+        drain();
+        System.out.flush();
+        System.err.flush();
+    }
+
+    /**
+     * @return le nombre d'événements écrits
+     */
+    private int drain() {
+        int written = 0;
+        long position = head;
+        Event event;
+        // Case nulle : tampon vide, ou case réservée dont le producteur n'a pas encore publié l'événement
+        while ((event = slots.get((int) (position & mask))) != null) {
+            slots.set((int) (position & mask), null);
+            position++;
+            head = position;
+            write(event);
+            written++;
+        }
+        long drops = dropped.sum();
+        if (drops != reportedDrops) {
+            System.err.println(TIME_FORMAT.format(Instant.now()) + " WARN  [Log] " + (drops - reportedDrops) +
+                               " message(s) perdu(s): tampon de journalisation plein");
+            reportedDrops = drops;
+        }
+        return written;
+    }
+
+    private static void write(Event event) {
+        PrintStream out = event.level.compareTo(Level.WARN) >= 0 ? System.err : System.out;
+        StringBuilder line = new StringBuilder(64 + event.message.length());
+        line.append(TIME_FORMAT.format(Instant.ofEpochMilli(event.timestamp))).append(' ');
+        line.append(event.level.name());
+        for (int i = event.level.name().length(); i < 5; i++) {
+            line.append(' ');
+        }
+        line.append(" [").append(event.logger).append("] ").append(event.message);
+        out.println(line);
+        if (event.error != null) {
+            event.error.printStackTrace(out);
+        }
+    }
+
+    private static final class Event {
+        final long timestamp;
+        final Level level;
+        final String logger;
+        final String message;
+        final Throwable error;
+
+        Event(long timestamp, Level level, String logger, String message, Throwable error) {
+            this.timestamp = timestamp;
+            this.level = level;
+            this.logger = logger;
+            this.message = String.valueOf(message);
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package itu.framework.log;
+
+import java.util.function.Supplier;
+
+/**
+ * Journal du framework.
+ *
+ * Le niveau est global (Logger.setLevel, paramètre logLevel de web.xml) et vérifié avant toute
+ * construction du message : pour un message coûteux, utiliser la variante Supplier ou tester
+ * isDebugEnabled() avant de concaténer. Les messages acceptés sont déposés dans le tampon de
+ * LogDispatcher et écrits par un thread de fond : un thread de requête ne bloque jamais sur
+ * System.out.
+ *
+ * Exemple: private static final Logger LOG = Logger.get("ControllerScanner");
+ */
+public final class Logger {
+
+    private static volatile Level level = Level.INFO;
+
+    private final String name;
+
+    private Logger(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @param name Nom affiché entre crochets devant chaque message
+     */
+    public static Logger get(String name) {
+        return new Logger(name);
+    }
+
+    public static Logger get(Class<?> type) {
+        return new Logger(type.getSimpleName());
+    }
+
+    public static Level getLevel() {
+        return level;
+    }
+
+    public static void setLevel(Level newLevel) {
+        level = newLevel != null ? newLevel : Level.INFO;
+    }
+
+    /**
+     * @return le nombre de messages perdus parce que le tampon était plein
+     */
+    public static long getDroppedCount() {
+        return LogDispatcher.INSTANCE.getDroppedCount();
+    }
+
+    /**
+     * Écrit les messages en attente et arrête le thread d'écriture (arrêt de l'application).
+     * Il n'est pas redémarré : les messages journalisés ensuite sont écrits de façon synchrone.
+     */
+    public static void shutdown() {
+        LogDispatcher.INSTANCE.shutdown();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isEnabled(Level messageLevel) {
+        return messageLevel.compareTo(level) >= 0 && messageLevel != Level.OFF;
+    }
+
+    public boolean isDebugEnabled() {
+        return isEnabled(Level.DEBUG);
+    }
+
+    public boolean isInfoEnabled() {
+        return isEnabled(Level.INFO);
+    }
+
+    public void debug(String message) {
+        log(Level.DEBUG, message, null);
+    }
+
+    public void debug(Supplier<String> message) {
+        if (isEnabled(Level.DEBUG)) {
+            log(Level.DEBUG, message.get(), null);
+        }
+    }
+
+    public void info(String message) {
+        log(Level.INFO, message, null);
+    }
+
+    public void info(Supplier<String> message) {
+        if (isEnabled(Level.INFO)) {
+            log(Level.INFO, message.get(), null);
+        }
+    }
+
+    public void warn(String message) {
+        log(Level.WARN, message, null);
+    }
+
+    public void error(String message) {
+        log(Level.ERROR, message, null);
+    }
+
+    public void error(String message, Throwable error) {
+        log(Level.ERROR, message, error);
+    }
+
+    public void log(Level messageLevel, String message, Throwable error) {
+        if (isEnabled(messageLevel)) {
+            LogDispatcher.INSTANCE.enqueue(messageLevel, name, message, error);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package itu.framework.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogramme de latences à classes fixes, sans verrou.
+ *
+ * Les durées sont comptées en microsecondes dans des classes log-linéaires : 8 classes par
+ * puissance de deux, soit une erreur relative d'au plus 12,5 % sur un quantile. Jusqu'à 8 µs
+ * chaque microseconde a sa classe ; au-delà de 2^36 µs (environ 19 h) tout tombe dans la
+ * dernière. record() ne fait qu'un calcul de classe et un incrément atomique.
+ */
+public final class LatencyHistogram {
+
+    // 2^SUB_BITS classes par puissance de deux
+    private static final int SUB_BITS = 3;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int MAX_EXPONENT = 36;
+    private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BITS + 1) * SUB_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    /**
+     * Ajoute une durée.
+     * @param nanos Durée en nanosecondes
+     */
+    public void record(long nanos) {
+        counts.incrementAndGet(bucketOf(Math.max(nanos, 0) / 1000));
+    }
+
+    static int bucketOf(long micros) {
+        if (micros < SUB_COUNT) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent >= MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int shift = exponent - SUB_BITS;
+        return (shift + 1) * SUB_COUNT + (int) ((micros >>> shift) & (SUB_COUNT - 1));
+    }
+
+    /**
+     * @return la borne supérieure (incluse) de la classe, en microsecondes
+     */
+    static long upperBoundOf(int bucket) {
+        if (bucket < SUB_COUNT) {
+            return bucket;
+        }
+        int shift = bucket / SUB_COUNT - 1;
+        long sub = bucket % SUB_COUNT;
+        return ((SUB_COUNT + sub + 1) << shift) - 1;
+    }
+
+    /**
+     * Copie des compteurs, pour calculer plusieurs quantiles sur les mêmes valeurs.
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            copy[i] = counts.get(i);
+            total += copy[i];
+        }
+        return new Snapshot(copy, total);
+    }
+
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long total;
+
+        private Snapshot(long[] counts, long total) {
+            this.counts = counts;
+            this.total = total;
+        }
+
+        public long getCount() {
+            return total;
+        }
+
+        /**
+         * @param quantile Entre 0 et 1 (ex: 0.99)
+         * @return la borne supérieure de la classe qui contient le quantile, en microsecondes
+         *         (0 si aucune durée n'a été enregistrée)
+         */
+        public long quantileMicros(double quantile) {
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(quantile * total));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return upperBoundOf(i);
+                }
+            }
+            return upperBoundOf(counts.length - 1);
+        }
+    }
+}
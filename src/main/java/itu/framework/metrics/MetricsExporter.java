@@ -0,0 +1,141 @@
+package itu.framework.metrics;
+
+import itu.framework.scan.ControllerScanner.MethodInfo;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Export des métriques des routes, au format texte Prometheus ou sous forme de données à
+ * sérialiser en JSON. Servi par FrontServlet à l'URL du paramètre metricsUrl de web.xml.
+ */
+public final class MetricsExporter {
+
+    public static final String PROMETHEUS_CONTENT_TYPE = "text/plain; version=0.0.4; charset=UTF-8";
+
+    private static final double[] QUANTILES = {0.5, 0.99, 0.999};
+    private static final String[] QUANTILE_LABELS = {"0.5", "0.99", "0.999"};
+    private static final String[] QUANTILE_KEYS = {"p50", "p99", "p999"};
+
+    private MetricsExporter() {
+    }
+
+    /**
+     * @param mappings Mappings "METHOD:URL" -> MethodInfo du FrameworkRuntime courant
+     */
+    public static String toPrometheus(Map<String, MethodInfo> mappings) {
+        StringBuilder requests = new StringBuilder(
+                "# HELP framework_route_requests_total Requêtes traitées par route\n" +
+                "# TYPE framework_route_requests_total counter\n");
+        StringBuilder errors = new StringBuilder(
+                "# HELP framework_route_errors_total Requêtes terminées en erreur par route\n" +
+                "# TYPE framework_route_errors_total counter\n");
+        StringBuilder latency = new StringBuilder(
+                "# HELP framework_route_latency_seconds Durée de traitement par route\n" +
+                "# TYPE framework_route_latency_seconds summary\n");
+        StringBuilder phases = new StringBuilder();
+
+        for (Map.Entry<String, MethodInfo> entry : mappings.entrySet()) {
+            RouteMetrics metrics = entry.getValue().getMetrics();
+            String labels = "method=\"" + escapeLabel(httpMethodOf(entry.getKey())) +
+                            "\",route=\"" + escapeLabel(entry.getValue().getUrlPattern()) + "\"";
+            LatencyHistogram.Snapshot snapshot = metrics.getLatency().snapshot();
+
+            requests.append("framework_route_requests_total{").append(labels).append("} ")
+                    .append(metrics.getRequestCount()).append('\n');
+            errors.append("framework_route_errors_total{").append(labels).append("} ")
+                  .append(metrics.getErrorCount()).append('\n');
+            for (int i = 0; i < QUANTILES.length; i++) {
+                latency.append("framework_route_latency_seconds{").append(labels)
+                       .append(",quantile=\"").append(QUANTILE_LABELS[i]).append("\"} ")
+                       .append(snapshot.quantileMicros(QUANTILES[i]) / 1e6).append('\n');
+            }
+            latency.append("framework_route_latency_seconds_sum{").append(labels).append("} ")
+                   .append(metrics.getTotalNanos() / 1e9).append('\n');
+            latency.append("framework_route_latency_seconds_count{").append(labels).append("} ")
+                   .append(snapshot.getCount()).append('\n');
+
+            for (Phase phase : Phase.values()) {
+                LatencyHistogram histogram = metrics.getPhaseLatency(phase);
+                if (histogram == null) {
+                    continue;
+                }
+                LatencyHistogram.Snapshot phaseSnapshot = histogram.snapshot();
+                for (int i = 0; i < QUANTILES.length; i++) {
+                    phases.append("framework_route_phase_seconds{").append(labels)
+                          .append(",phase=\"").append(phase.getLabel())
+                          .append("\",quantile=\"").append(QUANTILE_LABELS[i]).append("\"} ")
+                          .append(phaseSnapshot.quantileMicros(QUANTILES[i]) / 1e6).append('\n');
+                }
+                phases.append("framework_route_phase_seconds_count{").append(labels)
+                      .append(",phase=\"").append(phase.getLabel()).append("\"} ")
+                      .append(phaseSnapshot.getCount()).append('\n');
+            }
+        }
+        requests.append(errors).append(latency);
+        if (phases.length() > 0) {
+            requests.append("# HELP framework_route_phase_seconds Durée de chaque étape du traitement par route\n")
+                    .append("# TYPE framework_route_phase_seconds summary\n")
+                    .append(phases);
+        }
+        return requests.toString();
+    }
+
+    /**
+     * @return une entrée par route (method, route, handler, requests, errors, latences en µs)
+     */
+    public static List<Map<String, Object>> toJsonModel(Map<String, MethodInfo> mappings) {
+        List<Map<String, Object>> routes = new ArrayList<>(mappings.size());
+        for (Map.Entry<String, MethodInfo> entry : mappings.entrySet()) {
+            MethodInfo info = entry.getValue();
+            RouteMetrics metrics = info.getMetrics();
+            LatencyHistogram.Snapshot snapshot = metrics.getLatency().snapshot();
+
+            Map<String, Object> route = new LinkedHashMap<>();
+            route.put("method", httpMethodOf(entry.getKey()));
+            route.put("route", info.getUrlPattern());
+            route.put("handler", info.getControllerClass().getSimpleName() + "." + info.getMethod().getName());
+            route.put("requests", metrics.getRequestCount());
+            route.put("errors", metrics.getErrorCount());
+            Map<String, Object> latency = new LinkedHashMap<>();
+            for (int i = 0; i < QUANTILES.length; i++) {
+                latency.put(QUANTILE_KEYS[i], snapshot.quantileMicros(QUANTILES[i]));
+            }
+            long count = snapshot.getCount();
+            latency.put("mean", count > 0 ? metrics.getTotalNanos() / count / 1000 : 0);
+            route.put("latencyMicros", latency);
+            Map<String, Object> phases = new LinkedHashMap<>();
+            for (Phase phase : Phase.values()) {
+                LatencyHistogram histogram = metrics.getPhaseLatency(phase);
+                if (histogram != null) {
+                    LatencyHistogram.Snapshot phaseSnapshot = histogram.snapshot();
+                    Map<String, Object> phaseLatency = new LinkedHashMap<>();
+                    for (int i = 0; i < QUANTILES.length; i++) {
+                        phaseLatency.put(QUANTILE_KEYS[i], phaseSnapshot.quantileMicros(QUANTILES[i]));
+                    }
+                    phaseLatency.put("count", phaseSnapshot.getCount());
+                    phases.put(phase.getLabel(), phaseLatency);
+                }
+            }
+            if (!phases.isEmpty()) {
+                route.put("phasesMicros", phases);
+            }
+            routes.add(route);
+        }
+        return routes;
+    }
+
+    private static String httpMethodOf(String mappingKey) {
+        int colon = mappingKey.indexOf(':');
+        return colon > 0 ? mappingKey.substring(0, colon) : mappingKey;
+    }
+
+    private static String escapeLabel(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
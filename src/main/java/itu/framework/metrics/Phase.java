@@ -0,0 +1,25 @@
+package itu.framework.metrics;
+
+/**
+ * Étapes du traitement d'une requête par FrontServlet, dans l'ordre.
+ */
+public enum Phase {
+    RESOLVE("resolve"),
+    AUTHORIZE("authorize"),
+    BIND("bind"),
+    INVOKE("invoke"),
+    RENDER("render");
+
+    private final String label;
+
+    Phase(String label) {
+        this.label = label;
+    }
+
+    /**
+     * @return le nom utilisé dans Server-Timing et dans les métriques exportées
+     */
+    public String getLabel() {
+        return label;
+    }
+}
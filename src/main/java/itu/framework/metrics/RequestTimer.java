@@ -0,0 +1,88 @@
+package itu.framework.metrics;
+
+/**
+ * Chronométrage des étapes d'une requête (voir Phase), par différences de System.nanoTime.
+ *
+ * Une instance par thread, réutilisée d'une requête à l'autre : acquire() ne crée rien en
+ * régime établi. Une requête imbriquée sur le même thread (forward vers une autre route du
+ * framework) reçoit sa propre instance pour ne pas écraser celle de la requête englobante.
+ */
+public final class RequestTimer {
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final ThreadLocal<RequestTimer> CURRENT = ThreadLocal.withInitial(RequestTimer::new);
+
+    // Durée de chaque étape en nanosecondes, -1 si l'étape n'a pas été atteinte
+    private final long[] durations = new long[PHASES.length];
+    private long lastMark;
+    private boolean inUse;
+
+    private RequestTimer() {
+    }
+
+    /**
+     * @param startNanos Début de la requête (System.nanoTime)
+     * @return le chronomètre du thread, remis à zéro ; à rendre par release()
+     */
+    public static RequestTimer acquire(long startNanos) {
+        RequestTimer timer = CURRENT.get();
+        if (timer.inUse) {
+            timer = new RequestTimer();
+        }
+        timer.inUse = true;
+        timer.lastMark = startNanos;
+        for (int i = 0; i < timer.durations.length; i++) {
+            timer.durations[i] = -1;
+        }
+        return timer;
+    }
+
+    /**
+     * Termine une étape : sa durée est le temps écoulé depuis la fin de l'étape précédente.
+     */
+    public void mark(Phase phase) {
+        long now = System.nanoTime();
+        durations[phase.ordinal()] = now - lastMark;
+        lastMark = now;
+    }
+
+    /**
+     * @return la durée de l'étape en nanosecondes, ou -1 si elle n'a pas été atteinte
+     */
+    public long getDuration(Phase phase) {
+        return durations[phase.ordinal()];
+    }
+
+    /**
+     * Valeur de l'en-tête Server-Timing pour les étapes terminées, durées en millisecondes.
+     * Exemple: resolve;dur=0.012, authorize;dur=0.003, bind;dur=0.150
+     */
+    public String toServerTiming() {
+        StringBuilder sb = new StringBuilder(96);
+        for (Phase phase : PHASES) {
+            long nanos = durations[phase.ordinal()];
+            if (nanos < 0) {
+                continue;
+            }
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            // Trois décimales sans passer par String.format
+            long micros = nanos / 1000;
+            sb.append(phase.getLabel()).append(";dur=").append(micros / 1000).append('.');
+            long fraction = micros % 1000;
+            if (fraction < 100) {
+                sb.append('0');
+            }
+            if (fraction < 10) {
+                sb.append('0');
+            }
+            sb.append(fraction);
+        }
+        return sb.toString();
+    }
+
+    public void release() {
+        inUse = false;
+    }
+}
@@ -0,0 +1,80 @@
+package itu.framework.metrics;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compteurs d'une route : requêtes, erreurs, durée cumulée et histogramme des latences.
+ * Avec le chronométrage des étapes activé, un histogramme par Phase, créé au premier usage.
+ *
+ * Porté par chaque MethodInfo ; FrontServlet appelle record() une fois par requête. Les
+ * LongAdder répartissent les incréments entre cellules, sans contention entre threads. Les
+ * compteurs vivent autant que l'application : un redéploiement les remet à zéro.
+ */
+public final class RouteMetrics {
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+    // Indexé par Phase.ordinal(), cases vides tant que phaseTiming est désactivé
+    private final AtomicReferenceArray<LatencyHistogram> phases = new AtomicReferenceArray<>(Phase.values().length);
+
+    /**
+     * @param nanos Durée de traitement de la requête
+     * @param error true si la requête s'est terminée par une erreur (exception ou statut 4xx/5xx
+     *              produit par le framework)
+     */
+    public void record(long nanos, boolean error) {
+        requests.increment();
+        if (error) {
+            errors.increment();
+        }
+        totalNanos.add(nanos);
+        latency.record(nanos);
+    }
+
+    /**
+     * Ajoute les durées des étapes atteintes par la requête.
+     */
+    public void recordPhases(RequestTimer timer) {
+        for (Phase phase : Phase.values()) {
+            long nanos = timer.getDuration(phase);
+            if (nanos >= 0) {
+                phaseHistogram(phase).record(nanos);
+            }
+        }
+    }
+
+    private LatencyHistogram phaseHistogram(Phase phase) {
+        LatencyHistogram histogram = phases.get(phase.ordinal());
+        if (histogram == null) {
+            phases.compareAndSet(phase.ordinal(), null, new LatencyHistogram());
+            histogram = phases.get(phase.ordinal());
+        }
+        return histogram;
+    }
+
+    /**
+     * @return l'histogramme de l'étape, ou null si aucune durée n'a été enregistrée
+     */
+    public LatencyHistogram getPhaseLatency(Phase phase) {
+        return phases.get(phase.ordinal());
+    }
+
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+}
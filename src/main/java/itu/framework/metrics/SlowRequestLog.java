@@ -0,0 +1,194 @@
+package itu.framework.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Dernières requêtes lentes, dans un tampon circulaire de taille fixe.
+ *
+ * record() réserve un numéro par getAndIncrement et écrit l'entrée dans la case correspondante,
+ * en écrasant la plus ancienne : ni verrou ni attente, et jamais plus de capacity entrées en
+ * mémoire, même si toutes les requêtes deviennent lentes.
+ *
+ * L'état du thread est résumé par ce qu'il a fait pendant la requête (ThreadState) : temps CPU,
+ * nombre et durée des blocages sur un moniteur et des attentes (wait, park, sleep, join). Les
+ * durées demandent la mesure de contention de la JVM, activée à la création du journal.
+ */
+public final class SlowRequestLog {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final boolean CPU_TIME_SUPPORTED = THREADS.isCurrentThreadCpuTimeSupported();
+
+    private final AtomicReferenceArray<Entry> slots;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public SlowRequestLog(int capacity) {
+        this.slots = new AtomicReferenceArray<>(Math.max(capacity, 1));
+        if (THREADS.isThreadContentionMonitoringSupported()) {
+            THREADS.setThreadContentionMonitoringEnabled(true);
+        }
+    }
+
+    public int getCapacity() {
+        return slots.length();
+    }
+
+    /**
+     * @return le nombre total de requêtes lentes détectées (y compris celles déjà écrasées)
+     */
+    public long getTotalCount() {
+        return sequence.get();
+    }
+
+
+    public void record(Entry entry) {
+        long number = sequence.getAndIncrement();
+        entry.sequence = number;
+        slots.set((int) (number % slots.length()), entry);
+    }
+
+    /**
+     * @return les entrées présentes, de la plus récente à la plus ancienne
+     */
+    public List<Entry> snapshot() {
+        List<Entry> entries = new ArrayList<>(slots.length());
+        for (int i = 0; i < slots.length(); i++) {
+            Entry entry = slots.get(i);
+            if (entry != null) {
+                entries.add(entry);
+            }
+        }
+        entries.sort(Comparator.comparingLong((Entry entry) -> entry.sequence).reversed());
+        return entries;
+    }
+
+    /**
+     * Une requête lente. Ni les valeurs des paramètres ni celles des variables de chemin ne sont
+     * conservées : seulement les noms des paramètres et la route (ex: /employe/{id}).
+     */
+    public static final class Entry {
+        // Numéro d'ordre attribué par record(), publié par l'écriture dans le tampon
+        private long sequence;
+        private final long timestamp;
+        private final String method;
+        private final String route;
+        private final String handler;
+        private final long durationMicros;
+        private final long thresholdMicros;
+        private final Map<String, Long> phasesMicros;
+        private final List<String> parameterNames;
+        private final String thread;
+        // Activité du thread pendant la requête
+        private final ThreadState threadState;
+        private final boolean failed;
+
+        public Entry(long timestamp, String method, String route, String handler,
+                     long durationMicros, long thresholdMicros, Map<String, Long> phasesMicros,
+                     List<String> parameterNames, String thread, ThreadState threadState, boolean failed) {
+            this.timestamp = timestamp;
+            this.method = method;
+            this.route = route;
+            this.handler = handler;
+            this.durationMicros = durationMicros;
+            this.thresholdMicros = thresholdMicros;
+            this.phasesMicros = phasesMicros != null ? phasesMicros : Collections.emptyMap();
+            this.parameterNames = parameterNames;
+            this.thread = thread;
+            this.threadState = threadState;
+            this.failed = failed;
+        }
+
+        public long getSequence() { return sequence; }
+
+        public long getTimestamp() { return timestamp; }
+
+        public String getMethod() { return method; }
+
+        public String getRoute() { return route; }
+
+        public String getHandler() { return handler; }
+
+        public long getDurationMicros() { return durationMicros; }
+
+        public long getThresholdMicros() { return thresholdMicros; }
+
+        public Map<String, Long> getPhasesMicros() { return phasesMicros; }
+
+        public List<String> getParameterNames() { return parameterNames; }
+
+        public String getThread() { return thread; }
+
+        public ThreadState getThreadState() { return threadState; }
+
+        public boolean isFailed() { return failed; }
+    }
+
+    /**
+     * Compteurs d'un thread : relevés au début de la requête par current(), puis différence en fin
+     * de requête par untilNow(). Une valeur -1 signale une mesure indisponible dans la JVM.
+     */
+    public static final class ThreadState {
+        private final long cpuMicros;
+        private final long blockedCount;
+        private final long blockedMillis;
+        private final long waitedCount;
+        private final long waitedMillis;
+
+        private ThreadState(long cpuMicros, long blockedCount, long blockedMillis, long waitedCount, long waitedMillis) {
+            this.cpuMicros = cpuMicros;
+            this.blockedCount = blockedCount;
+            this.blockedMillis = blockedMillis;
+            this.waitedCount = waitedCount;
+            this.waitedMillis = waitedMillis;
+        }
+
+        /**
+         * Relève les compteurs du thread courant (sans pile d'appels).
+         */
+        public static ThreadState current() {
+            long cpuMicros = CPU_TIME_SUPPORTED && THREADS.isThreadCpuTimeEnabled()
+                    ? THREADS.getCurrentThreadCpuTime() / 1000 : -1;
+            ThreadInfo info = THREADS.getThreadInfo(Thread.currentThread().threadId());
+            if (info == null) {
+                return new ThreadState(cpuMicros, -1, -1, -1, -1);
+            }
+            // getBlockedTime/getWaitedTime : -1 si la mesure de contention est désactivée
+            return new ThreadState(cpuMicros, info.getBlockedCount(), info.getBlockedTime(),
+                                   info.getWaitedCount(), info.getWaitedTime());
+        }
+
+        /**
+         * @return l'activité du thread courant depuis ce relevé
+         */
+        public ThreadState untilNow() {
+            ThreadState now = current();
+            return new ThreadState(delta(now.cpuMicros, cpuMicros),
+                                   delta(now.blockedCount, blockedCount),
+                                   delta(now.blockedMillis, blockedMillis),
+                                   delta(now.waitedCount, waitedCount),
+                                   delta(now.waitedMillis, waitedMillis));
+        }
+
+        private static long delta(long end, long start) {
+            return end >= 0 && start >= 0 ? end - start : -1;
+        }
+
+        public long getCpuMicros() { return cpuMicros; }
+
+        public long getBlockedCount() { return blockedCount; }
+
+        public long getBlockedMillis() { return blockedMillis; }
+
+        public long getWaitedCount() { return waitedCount; }
+
+        public long getWaitedMillis() { return waitedMillis; }
+    }
+}
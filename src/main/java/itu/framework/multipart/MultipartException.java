@@ -0,0 +1,23 @@
+package itu.framework.multipart;
+
+import java.io.IOException;
+
+/**
+ * Corps multipart refusé : limite franchie (413), type MIME non autorisé (415) ou
+ * corps mal formé (400). Le statut HTTP à renvoyer est porté par l'exception.
+ */
+public class MultipartException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+
+    public MultipartException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,80 @@
+package itu.framework.multipart;
+
+import itu.framework.annotation.Multipart;
+
+import java.util.Locale;
+
+/**
+ * Limites du parseur multipart pour une route, lues une fois depuis @Multipart lors du scan.
+ * Une valeur &lt;= 0 désactive la limite correspondante.
+ */
+public final class MultipartLimits {
+
+    private final int maxParts;
+    private final long maxPartSize;
+    private final long maxRequestSize;
+    private final String[] allowedTypes;
+    private final int memoryThreshold;
+
+    public MultipartLimits(int maxParts, long maxPartSize, long maxRequestSize,
+                           String[] allowedTypes, int memoryThreshold) {
+        this.maxParts = maxParts;
+        this.maxPartSize = maxPartSize;
+        this.maxRequestSize = maxRequestSize;
+        this.allowedTypes = new String[allowedTypes.length];
+        for (int i = 0; i < allowedTypes.length; i++) {
+            String type = allowedTypes[i].trim().toLowerCase(Locale.ROOT);
+            if (type.isEmpty() || type.indexOf('/') <= 0) {
+                throw new IllegalArgumentException("Type MIME invalide dans @Multipart: '" + allowedTypes[i] +
+                        "' (attendu: type/sous-type ou type/*)");
+            }
+            this.allowedTypes[i] = type;
+        }
+        this.memoryThreshold = Math.max(memoryThreshold, 0);
+    }
+
+    /**
+     * @throws IllegalArgumentException si un type MIME de allowedTypes est invalide
+     */
+    public static MultipartLimits from(Multipart annotation) {
+        return new MultipartLimits(annotation.maxParts(), annotation.maxPartSize(), annotation.maxRequestSize(),
+                                   annotation.allowedTypes(), annotation.memoryThreshold());
+    }
+
+    public int getMaxParts() {
+        return maxParts;
+    }
+
+    public long getMaxPartSize() {
+        return maxPartSize;
+    }
+
+    public long getMaxRequestSize() {
+        return maxRequestSize;
+    }
+
+    public int getMemoryThreshold() {
+        return memoryThreshold;
+    }
+
+    /**
+     * Vérifie le type MIME d'un fichier (paramètres comme "; charset=" ignorés).
+     */
+    public boolean allowsType(String contentType) {
+        if (allowedTypes.length == 0) {
+            return true;
+        }
+        String type = contentType == null ? "application/octet-stream" : contentType;
+        int semicolon = type.indexOf(';');
+        type = (semicolon >= 0 ? type.substring(0, semicolon) : type).trim().toLowerCase(Locale.ROOT);
+        for (String allowed : allowedTypes) {
+            if (allowed.equals("*/*") || allowed.equals(type)) {
+                return true;
+            }
+            if (allowed.endsWith("/*") && type.startsWith(allowed.substring(0, allowed.length() - 1))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,315 @@
+package itu.framework.multipart;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Parseur multipart/form-data en flux (RFC 7578), lu par un ReadableByteChannel dans un
+ * tampon de taille fixe.
+ *
+ * Les parts sont rendues une par une par next(), chacune avec un InputStream qui s'arrête au
+ * délimiteur suivant : rien n'est mis en mémoire au-delà du tampon. Les limites de
+ * MultipartLimits sont vérifiées au fil de la lecture et lèvent une MultipartException dès
+ * qu'elles sont franchies, sans lire le reste du corps.
+ */
+public final class MultipartParser {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final int MAX_HEADER_SIZE = 8 * 1024;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final byte[] data;
+    // "\r\n--" + boundary
+    private final byte[] delimiter;
+    private final MultipartLimits limits;
+    private final Charset headerCharset;
+
+    private long totalBytes;
+    private boolean endOfInput;
+    private boolean started;
+    private boolean finished;
+    private int partCount;
+    private PartInputStream current;
+
+    public MultipartParser(InputStream in, String boundary, MultipartLimits limits, Charset headerCharset) {
+        this.channel = Channels.newChannel(in);
+        this.delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+        this.buffer = ByteBuffer.allocate(Math.max(BUFFER_SIZE, delimiter.length * 4));
+        this.data = buffer.array();
+        this.limits = limits;
+        this.headerCharset = headerCharset != null ? headerCharset : StandardCharsets.UTF_8;
+
+        // Le premier délimiteur n'est pas précédé de CRLF : on l'ajoute pour n'avoir qu'une seule forme
+        buffer.put((byte) '\r').put((byte) '\n').flip();
+    }
+
+    /**
+     * Indique si le Content-Type est multipart/*.
+     */
+    public static boolean isMultipart(String contentType) {
+        return contentType != null && contentType.regionMatches(true, 0, "multipart/", 0, 10);
+    }
+
+    /**
+     * @return le paramètre boundary du Content-Type, ou null s'il est absent
+     */
+    public static String boundaryOf(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        int index = contentType.toLowerCase(Locale.ROOT).indexOf("boundary=");
+        if (index < 0) {
+            return null;
+        }
+        String boundary = contentType.substring(index + 9).trim();
+        if (boundary.startsWith("\"")) {
+            int end = boundary.indexOf('"', 1);
+            boundary = end > 0 ? boundary.substring(1, end) : boundary.substring(1);
+        } else {
+            int end = boundary.indexOf(';');
+            if (end >= 0) {
+                boundary = boundary.substring(0, end).trim();
+            }
+        }
+        return boundary.isEmpty() || boundary.length() > 70 ? null : boundary;
+    }
+
+    /**
+     * Passe à la part suivante (le reste de la part courante est ignoré).
+     * @return la part, ou null après le délimiteur final
+     */
+    public StreamPart next() throws IOException {
+        if (finished) {
+            return null;
+        }
+        if (current != null) {
+            current.drain();
+            current = null;
+        } else if (!started) {
+            skipPreamble();
+        }
+        started = true;
+
+        // Après un délimiteur : "--" (fin) ou CRLF (une part suit)
+        if (!ensure(2)) {
+            throw malformed("fin de flux après un délimiteur");
+        }
+        int position = buffer.position();
+        if (data[position] == '-' && data[position + 1] == '-') {
+            finished = true;
+            return null;
+        }
+        String paddingAndEnd = readLine();
+        if (!paddingAndEnd.isBlank()) {
+            throw malformed("délimiteur suivi de '" + paddingAndEnd + "'");
+        }
+
+        Map<String, String> headers = readHeaders();
+        partCount++;
+        if (limits.getMaxParts() > 0 && partCount > limits.getMaxParts()) {
+            throw new MultipartException(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE,
+                    "Trop de parts dans la requête (maximum " + limits.getMaxParts() + ")");
+        }
+
+        current = new PartInputStream();
+        StreamPart part = new StreamPart(headers, current);
+        // filename="" : input fichier laissé vide, pas de contenu à contrôler
+        if (part.isFile() && !part.getFilename().isEmpty() && !limits.allowsType(part.getContentType())) {
+            throw new MultipartException(HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE,
+                    "Type de fichier non autorisé pour '" + part.getName() + "': " + part.getContentType());
+        }
+        return part;
+    }
+
+    private void skipPreamble() throws IOException {
+        while (true) {
+            int index = indexOfDelimiter();
+            if (index >= 0) {
+                buffer.position(index + delimiter.length);
+                return;
+            }
+            // Garder la fin du tampon, qui peut contenir le début du délimiteur
+            buffer.position(Math.max(buffer.position(), buffer.limit() - delimiter.length + 1));
+            if (endOfInput) {
+                throw malformed("aucun délimiteur trouvé");
+            }
+            fill();
+        }
+    }
+
+    private Map<String, String> readHeaders() throws IOException {
+        Map<String, String> headers = new LinkedHashMap<>();
+        int size = 0;
+        String line;
+        while (!(line = readLine()).isEmpty()) {
+            size += line.length();
+            if (size > MAX_HEADER_SIZE) {
+                throw malformed("en-têtes de part trop longs");
+            }
+            int colon = line.indexOf(':');
+            if (colon > 0) {
+                headers.put(line.substring(0, colon).trim().toLowerCase(Locale.ROOT), line.substring(colon + 1).trim());
+            }
+        }
+        return headers;
+    }
+
+    /**
+     * Lit une ligne terminée par CRLF (CRLF exclu).
+     */
+    private String readLine() throws IOException {
+        while (true) {
+            int start = buffer.position();
+            int end = buffer.limit();
+            for (int i = start; i + 1 < end; i++) {
+                if (data[i] == '\r' && data[i + 1] == '\n') {
+                    buffer.position(i + 2);
+                    return new String(data, start, i - start, headerCharset);
+                }
+            }
+            if (end - start >= MAX_HEADER_SIZE) {
+                throw malformed("ligne d'en-tête trop longue");
+            }
+            if (endOfInput) {
+                throw malformed("fin de flux dans les en-têtes");
+            }
+            fill();
+        }
+    }
+
+    /**
+     * Garantit au moins n octets disponibles.
+     * @return false si le flux se termine avant
+     */
+    private boolean ensure(int n) throws IOException {
+        while (buffer.remaining() < n) {
+            if (endOfInput) {
+                return false;
+            }
+            fill();
+        }
+        return true;
+    }
+
+    private void fill() throws IOException {
+        buffer.compact();
+        int read = channel.read(buffer);
+        buffer.flip();
+        if (read < 0) {
+            endOfInput = true;
+            return;
+        }
+        totalBytes += read;
+        if (limits.getMaxRequestSize() > 0 && totalBytes > limits.getMaxRequestSize()) {
+            throw new MultipartException(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE,
+                    "Requête trop volumineuse (maximum " + limits.getMaxRequestSize() + " octets)");
+        }
+    }
+
+    /**
+     * @return l'index du délimiteur dans [position, limit), ou -1
+     */
+    private int indexOfDelimiter() {
+        int last = buffer.limit() - delimiter.length;
+        for (int i = buffer.position(); i <= last; i++) {
+            if (data[i] != '\r') {
+                continue;
+            }
+            int j = 1;
+            while (j < delimiter.length && data[i + j] == delimiter[j]) {
+                j++;
+            }
+            if (j == delimiter.length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static MultipartException malformed(String detail) {
+        return new MultipartException(HttpServletResponse.SC_BAD_REQUEST, "Corps multipart invalide: " + detail);
+    }
+
+    /**
+     * Contenu d'une part : lit le tampon jusqu'au délimiteur suivant, en comptant la taille.
+     */
+    private final class PartInputStream extends InputStream {
+        private long size;
+        private boolean done;
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            int n = read(one, 0, 1);
+            return n < 0 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) throws IOException {
+            if (done) {
+                return -1;
+            }
+            if (length == 0) {
+                return 0;
+            }
+            while (true) {
+                int start = buffer.position();
+                int index = indexOfDelimiter();
+                // Sans délimiteur, la fin du tampon peut en être le début : on la garde
+                int available = index >= 0 ? index - start
+                        : Math.max(0, buffer.limit() - start - delimiter.length + 1);
+                if (available > 0) {
+                    int n = Math.min(length, available);
+                    buffer.get(target, offset, n);
+                    count(n);
+                    return n;
+                }
+                if (index >= 0) {
+                    buffer.position(index + delimiter.length);
+                    done = true;
+                    return -1;
+                }
+                if (endOfInput) {
+                    throw malformed("fin de flux dans une part");
+                }
+                fill();
+            }
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            byte[] scratch = new byte[(int) Math.min(n, 4096)];
+            long skipped = 0;
+            int read;
+            while (skipped < n && (read = read(scratch, 0, (int) Math.min(scratch.length, n - skipped))) > 0) {
+                skipped += read;
+            }
+            return skipped;
+        }
+
+        void drain() throws IOException {
+            while (!done) {
+                skip(Long.MAX_VALUE);
+            }
+        }
+
+        private void count(int n) throws MultipartException {
+            size += n;
+            if (limits.getMaxPartSize() > 0 && size > limits.getMaxPartSize()) {
+                throw new MultipartException(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE,
+                        "Part trop volumineuse (maximum " + limits.getMaxPartSize() + " octets)");
+            }
+        }
+    }
+}
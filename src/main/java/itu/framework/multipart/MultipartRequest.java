@@ -0,0 +1,178 @@
+package itu.framework.multipart;
+
+import itu.framework.web.UploadFile;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Corps multipart d'une requête lu par MultipartParser : champs texte et fichiers.
+ *
+ * Les fichiers sont écrits au fil de la lecture (en mémoire jusqu'à memoryThreshold, sinon
+ * dans un fichier temporaire) ; les champs texte sont exposés comme paramètres de requête
+ * par wrap(). cleanup() supprime les fichiers temporaires à la fin de la requête.
+ */
+public final class MultipartRequest {
+
+    private final Map<String, List<String>> fields = new LinkedHashMap<>();
+    private final HashMap<String, UploadFile> files = new LinkedHashMap<>();
+
+    private MultipartRequest() {
+    }
+
+    /**
+     * Lit le corps de la requête. Un Content-Length annoncé au-delà de la limite est refusé
+     * avant toute lecture.
+     * @throws MultipartException si une limite est franchie, si le corps est mal formé ou si
+     * l'encodage déclaré n'est pas supporté (415)
+     */
+    public static MultipartRequest parse(HttpServletRequest req, MultipartLimits limits) throws IOException {
+        String boundary = MultipartParser.boundaryOf(req.getContentType());
+        if (boundary == null) {
+            throw new MultipartException(HttpServletResponse.SC_BAD_REQUEST,
+                    "Corps multipart invalide: paramètre boundary absent du Content-Type");
+        }
+        long contentLength = req.getContentLengthLong();
+        if (limits.getMaxRequestSize() > 0 && contentLength > limits.getMaxRequestSize()) {
+            throw new MultipartException(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE,
+                    "Requête trop volumineuse (maximum " + limits.getMaxRequestSize() + " octets)");
+        }
+
+        Charset charset = StandardCharsets.UTF_8;
+        if (req.getCharacterEncoding() != null) {
+            try {
+                charset = Charset.forName(req.getCharacterEncoding());
+            } catch (IllegalArgumentException e) {
+                throw new MultipartException(HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE,
+                        "Encodage du corps multipart non supporté: " + req.getCharacterEncoding());
+            }
+        }
+        MultipartRequest result = new MultipartRequest();
+        try {
+            MultipartParser parser = new MultipartParser(req.getInputStream(), boundary, limits, charset);
+            StreamPart part;
+            while ((part = parser.next()) != null) {
+                if (part.getName() == null) {
+                    continue;
+                }
+                if (part.isFile()) {
+                    result.addFile(part, limits);
+                } else {
+                    String value = new String(part.getInputStream().readAllBytes(), charset);
+                    result.fields.computeIfAbsent(part.getName(), k -> new ArrayList<>(1)).add(value);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            result.cleanup();
+            throw e;
+        }
+        return result;
+    }
+
+    private void addFile(StreamPart part, MultipartLimits limits) throws IOException {
+        String filename = part.getFilename();
+        String extension = "";
+        if (filename.contains(".")) {
+            extension = filename.substring(filename.lastIndexOf(".") + 1);
+        }
+        InputStream in = part.getInputStream();
+        UploadFile file = UploadFile.fromStream(filename, extension, part.getContentType(), in, limits.getMemoryThreshold());
+        // Input fichier laissé vide dans le formulaire : ignoré, comme avec le conteneur
+        if (file.size() == 0) {
+            file.delete();
+            return;
+        }
+        UploadFile previous = files.put(part.getName(), file);
+        if (previous != null) {
+            previous.delete();
+        }
+    }
+
+    /**
+     * @return les fichiers non vides par nom de champ
+     */
+    public HashMap<String, UploadFile> getFiles() {
+        return files;
+    }
+
+    /**
+     * @return les valeurs des champs texte par nom de champ
+     */
+    public Map<String, List<String>> getFields() {
+        return fields;
+    }
+
+    /**
+     * Expose les champs texte comme paramètres de la requête, en plus de ceux de l'URL.
+     */
+    public HttpServletRequest wrap(HttpServletRequest req) {
+        Map<String, String[]> parameters = new LinkedHashMap<>(req.getParameterMap());
+        for (Map.Entry<String, List<String>> entry : fields.entrySet()) {
+            String[] existing = parameters.get(entry.getKey());
+            List<String> values = new ArrayList<>();
+            if (existing != null) {
+                Collections.addAll(values, existing);
+            }
+            values.addAll(entry.getValue());
+            parameters.put(entry.getKey(), values.toArray(new String[0]));
+        }
+        return new ParameterRequestWrapper(req, Collections.unmodifiableMap(parameters));
+    }
+
+    /**
+     * Supprime les fichiers temporaires non déplacés par UploadFile.transferTo(Path).
+     */
+    public void cleanup() {
+        for (UploadFile file : files.values()) {
+            try {
+                file.delete();
+            } catch (IOException e) {
+                // Fichier temporaire déjà supprimé ou inaccessible : rien d'autre à faire
+            }
+        }
+    }
+
+    private static final class ParameterRequestWrapper extends HttpServletRequestWrapper {
+        private final Map<String, String[]> parameters;
+
+        ParameterRequestWrapper(HttpServletRequest request, Map<String, String[]> parameters) {
+            super(request);
+            this.parameters = parameters;
+        }
+
+        @Override
+        public String getParameter(String name) {
+            String[] values = parameters.get(name);
+            return values != null && values.length > 0 ? values[0] : null;
+        }
+
+        @Override
+        public String[] getParameterValues(String name) {
+            String[] values = parameters.get(name);
+            return values != null ? values.clone() : null;
+        }
+
+        @Override
+        public Enumeration<String> getParameterNames() {
+            return Collections.enumeration(parameters.keySet());
+        }
+
+        @Override
+        public Map<String, String[]> getParameterMap() {
+            return parameters;
+        }
+    }
+}
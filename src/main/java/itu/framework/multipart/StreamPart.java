@@ -0,0 +1,106 @@
+package itu.framework.multipart;
+
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * Une part d'un corps multipart, telle que rendue par MultipartParser.next().
+ * Son contenu doit être lu avant de passer à la part suivante.
+ */
+public final class StreamPart {
+
+    private final Map<String, String> headers;
+    private final InputStream inputStream;
+    private final String name;
+    private final String filename;
+
+    StreamPart(Map<String, String> headers, InputStream inputStream) {
+        this.headers = headers;
+        this.inputStream = inputStream;
+        String disposition = headers.get("content-disposition");
+        this.name = dispositionParameter(disposition, "name");
+        this.filename = dispositionParameter(disposition, "filename");
+    }
+
+    /**
+     * @return le nom du champ de formulaire
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return le nom du fichier envoyé, ou null pour un champ texte
+     */
+    public String getFilename() {
+        return filename;
+    }
+
+    public boolean isFile() {
+        return filename != null;
+    }
+
+    public String getContentType() {
+        return headers.get("content-type");
+    }
+
+    /**
+     * @param name Nom de l'en-tête, insensible à la casse
+     */
+    public String getHeader(String name) {
+        return headers.get(name.toLowerCase(java.util.Locale.ROOT));
+    }
+
+    /**
+     * @return le contenu de la part, lu en flux jusqu'au délimiteur suivant
+     */
+    public InputStream getInputStream() {
+        return inputStream;
+    }
+
+    /**
+     * Extrait un paramètre de Content-Disposition (valeur entre guillemets ou jeton).
+     */
+    private static String dispositionParameter(String disposition, String parameter) {
+        if (disposition == null) {
+            return null;
+        }
+        int i = disposition.indexOf(';');
+        while (i >= 0 && i < disposition.length()) {
+            i++;
+            while (i < disposition.length() && disposition.charAt(i) == ' ') {
+                i++;
+            }
+            int equals = disposition.indexOf('=', i);
+            if (equals < 0) {
+                return null;
+            }
+            String key = disposition.substring(i, equals).trim();
+            int valueStart = equals + 1;
+            String value;
+            int next;
+            if (valueStart < disposition.length() && disposition.charAt(valueStart) == '"') {
+                StringBuilder quoted = new StringBuilder();
+                int j = valueStart + 1;
+                while (j < disposition.length() && disposition.charAt(j) != '"') {
+                    char c = disposition.charAt(j);
+                    if (c == '\\' && j + 1 < disposition.length()) {
+                        c = disposition.charAt(++j);
+                    }
+                    quoted.append(c);
+                    j++;
+                }
+                value = quoted.toString();
+                next = disposition.indexOf(';', j);
+            } else {
+                next = disposition.indexOf(';', valueStart);
+                value = disposition.substring(valueStart, next < 0 ? disposition.length() : next).trim();
+            }
+            if (key.equalsIgnoreCase(parameter)) {
+                return value;
+            }
+            i = next;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,300 @@
+package itu.framework.routing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Contrainte d'une variable de chemin, vérifiée segment par segment sans expression régulière.
+ *
+ * Syntaxes acceptées dans @Url :
+ * <ul>
+ *   <li>{name} ou {name:string} : n'importe quel segment non vide</li>
+ *   <li>{id:int}, {id:long} : entier signé en base 10, sans dépassement</li>
+ *   <li>{id:uuid} : UUID canonique (8-4-4-4-12 hexadécimaux)</li>
+ *   <li>{slug:[a-z0-9-]+} : classe de caractères (plages, négation [^...], \ pour échapper)</li>
+ *   <li>{rest:*} : tout le reste du chemin, "/" compris (dernier segment uniquement)</li>
+ * </ul>
+ *
+ * Lors de la résolution, les contraintes d'un même niveau sont essayées de la plus
+ * spécifique à la moins spécifique : uuid, int, long, classe de caractères, string, *.
+ */
+public abstract class PathConstraint {
+
+    public static final PathConstraint STRING = new PathConstraint("string", 50) {
+        @Override
+        public boolean matches(String path, int start, int end) {
+            return end > start;
+        }
+    };
+
+    public static final PathConstraint INT = new IntegerConstraint("int", Integer.MIN_VALUE, -Integer.MAX_VALUE, 20);
+
+    public static final PathConstraint LONG = new IntegerConstraint("long", Long.MIN_VALUE, -Long.MAX_VALUE, 30);
+
+    public static final PathConstraint UUID_CONSTRAINT = new PathConstraint("uuid", 10) {
+        @Override
+        public boolean matches(String path, int start, int end) {
+            if (end - start != 36) {
+                return false;
+            }
+            for (int i = 0; i < 36; i++) {
+                char c = path.charAt(start + i);
+                if (i == 8 || i == 13 || i == 18 || i == 23) {
+                    if (c != '-') {
+                        return false;
+                    }
+                } else if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F'))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    };
+
+    public static final PathConstraint CATCH_ALL = new PathConstraint("*", 60) {
+        @Override
+        public boolean matches(String path, int start, int end) {
+            return end > start;
+        }
+
+        @Override
+        public boolean isCatchAll() {
+            return true;
+        }
+    };
+
+    private final String spec;
+    private final int priority;
+
+    private PathConstraint(String spec, int priority) {
+        this.spec = spec;
+        this.priority = priority;
+    }
+
+    /**
+     * Analyse la partie après ":" d'une variable de chemin.
+     * @param spec La spécification (null ou vide = string)
+     * @throws IllegalArgumentException si la syntaxe n'est pas reconnue
+     */
+    public static PathConstraint parse(String spec) {
+        if (spec == null || spec.isEmpty() || spec.equals("string")) {
+            return STRING;
+        }
+        switch (spec) {
+            case "int":
+                return INT;
+            case "long":
+                return LONG;
+            case "uuid":
+                return UUID_CONSTRAINT;
+            case "*":
+                return CATCH_ALL;
+            default:
+                if (spec.startsWith("[")) {
+                    return CharClassConstraint.parseClass(spec);
+                }
+                throw new IllegalArgumentException("Contrainte de variable de chemin inconnue: '" + spec +
+                        "' (attendu: string, int, long, uuid, * ou [classe]+)");
+        }
+    }
+
+    /**
+     * Vérifie le segment path[start, end).
+     */
+    public abstract boolean matches(String path, int start, int end);
+
+    /**
+     * @return true si la variable capture tout le reste du chemin
+     */
+    public boolean isCatchAll() {
+        return false;
+    }
+
+    public String getSpec() {
+        return spec;
+    }
+
+    int getPriority() {
+        return priority;
+    }
+
+    /**
+     * Indique si une valeur validée par cette contrainte peut être liée à un paramètre de ce type.
+     */
+    public boolean accepts(Class<?> type) {
+        if (type == String.class) {
+            return true;
+        }
+        if (this == INT) {
+            return type == int.class || type == Integer.class || type == long.class || type == Long.class;
+        }
+        if (this == LONG) {
+            return type == long.class || type == Long.class;
+        }
+        if (this == UUID_CONSTRAINT) {
+            return type == UUID.class;
+        }
+        return false;
+    }
+
+    /**
+     * Convertit une valeur déjà validée vers le type du paramètre.
+     */
+    public static Object convert(String value, Class<?> type) {
+        if (type == String.class) {
+            return value;
+        }
+        if (type == int.class || type == Integer.class) {
+            return Integer.parseInt(value);
+        }
+        if (type == long.class || type == Long.class) {
+            return Long.parseLong(value);
+        }
+        if (type == UUID.class) {
+            return UUID.fromString(value);
+        }
+        throw new IllegalArgumentException("Type de variable de chemin non supporté: " + type.getName());
+    }
+
+    @Override
+    public String toString() {
+        return spec;
+    }
+
+    /**
+     * Entier signé en base 10 : même algorithme que Long.parseLong (accumulation en négatif),
+     * pour rejeter les dépassements dès la résolution.
+     */
+    private static final class IntegerConstraint extends PathConstraint {
+        private final long negativeLimit;
+        private final long positiveLimit;
+
+        IntegerConstraint(String spec, long negativeLimit, long positiveLimit, int priority) {
+            super(spec, priority);
+            this.negativeLimit = negativeLimit;
+            this.positiveLimit = positiveLimit;
+        }
+
+        @Override
+        public boolean matches(String path, int start, int end) {
+            int i = start;
+            boolean negative = false;
+            if (i < end && path.charAt(i) == '-') {
+                negative = true;
+                i++;
+            }
+            if (i >= end) {
+                return false;
+            }
+            long limit = negative ? negativeLimit : positiveLimit;
+            long multmin = limit / 10;
+            long result = 0;
+            for (; i < end; i++) {
+                int digit = path.charAt(i) - '0';
+                if (digit < 0 || digit > 9 || result < multmin) {
+                    return false;
+                }
+                result *= 10;
+                if (result < limit + digit) {
+                    return false;
+                }
+                result -= digit;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Classe de caractères [..] suivie optionnellement de "+" : tous les caractères
+     * du segment doivent appartenir à la classe.
+     */
+    private static final class CharClassConstraint extends PathConstraint {
+        private final boolean[] ascii = new boolean[128];
+        private final char[] rangeStarts;
+        private final char[] rangeEnds;
+        private final boolean negated;
+
+        private CharClassConstraint(String spec, boolean negated, List<char[]> ranges) {
+            super(spec, 40);
+            this.negated = negated;
+            this.rangeStarts = new char[ranges.size()];
+            this.rangeEnds = new char[ranges.size()];
+            for (int i = 0; i < ranges.size(); i++) {
+                char from = ranges.get(i)[0];
+                char to = ranges.get(i)[1];
+                rangeStarts[i] = from;
+                rangeEnds[i] = to;
+                for (int c = from; c <= to && c < 128; c++) {
+                    ascii[c] = true;
+                }
+            }
+        }
+
+        static CharClassConstraint parseClass(String spec) {
+            int close = spec.lastIndexOf(']');
+            String quantifier = close < 0 ? "" : spec.substring(close + 1);
+            if (close <= 1 || !(quantifier.isEmpty() || quantifier.equals("+"))) {
+                throw new IllegalArgumentException("Classe de caractères invalide: '" + spec +
+                        "' (attendu: [caractères] ou [caractères]+)");
+            }
+
+            int i = 1;
+            boolean negated = false;
+            if (spec.charAt(i) == '^') {
+                negated = true;
+                i++;
+            }
+            List<char[]> ranges = new ArrayList<>();
+            while (i < close) {
+                char from = spec.charAt(i);
+                if (from == '\\' && i + 1 < close) {
+                    from = spec.charAt(++i);
+                }
+                i++;
+                char to = from;
+                if (i + 1 < close && spec.charAt(i) == '-') {
+                    to = spec.charAt(i + 1);
+                    if (to == '\\' && i + 2 < close) {
+                        to = spec.charAt(i + 2);
+                        i++;
+                    }
+                    i += 2;
+                    if (to < from) {
+                        throw new IllegalArgumentException("Plage invalide dans '" + spec + "': " + from + "-" + to);
+                    }
+                }
+                ranges.add(new char[] { from, to });
+            }
+            if (ranges.isEmpty()) {
+                throw new IllegalArgumentException("Classe de caractères vide: '" + spec + "'");
+            }
+            return new CharClassConstraint(spec, negated, ranges);
+        }
+
+        @Override
+        public boolean matches(String path, int start, int end) {
+            if (end <= start) {
+                return false;
+            }
+            for (int i = start; i < end; i++) {
+                if (inClass(path.charAt(i)) == negated) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean inClass(char c) {
+            if (c < 128) {
+                return ascii[c];
+            }
+            for (int r = 0; r < rangeStarts.length; r++) {
+                if (c >= rangeStarts[r] && c <= rangeEnds[r]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package itu.framework.routing;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache LRU borné des routes dynamiques déjà résolues (URI -> RouteMatch avec variables capturées).
+ *
+ * Le cache est découpé en segments indépendants (chacun une LinkedHashMap en ordre d'accès
+ * protégée par son propre verrou) pour limiter la contention entre threads.
+ * La taille totale ne dépasse jamais maxSize ; l'entrée la moins récemment utilisée
+ * d'un segment plein est évincée.
+ */
+public final class RouteCache {
+
+    private static final int SEGMENT_COUNT = 16;
+
+    private final Segment[] segments;
+    private final int maxSize;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public RouteCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("La taille du cache de routes doit être positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        int segmentCount = Math.min(SEGMENT_COUNT, Integer.highestOneBit(maxSize));
+        int perSegment = maxSize / segmentCount;
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(perSegment, evictions);
+        }
+    }
+
+    /**
+     * @return le RouteMatch en cache pour cette URI, ou null (compté comme miss)
+     */
+    public RouteMatch get(String uri) {
+        RouteMatch match = segmentFor(uri).get(uri);
+        if (match != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return match;
+    }
+
+    public void put(String uri, RouteMatch match) {
+        segmentFor(uri).put(uri, match);
+    }
+
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    private Segment segmentFor(String uri) {
+        int h = uri.hashCode();
+        h ^= (h >>> 16);
+        return segments[h & (segments.length - 1)];
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "RouteCache{size=" + size() + "/" + maxSize + ", hits=" + getHits() +
+               ", misses=" + getMisses() + ", evictions=" + getEvictions() + "}";
+    }
+
+    private static final class Segment {
+        private final LinkedHashMap<String, RouteMatch> entries;
+
+        Segment(int capacity, LongAdder evictions) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, RouteMatch> eldest) {
+                    if (size() > capacity) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        synchronized RouteMatch get(String uri) {
+            return entries.get(uri);
+        }
+
+        synchronized void put(String uri, RouteMatch match) {
+            entries.put(uri, match);
+        }
+
+        synchronized void clear() {
+            entries.clear();
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+    }
+}
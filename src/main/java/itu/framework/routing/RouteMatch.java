@@ -0,0 +1,27 @@
+package itu.framework.routing;
+
+import itu.framework.scan.ControllerScanner.MethodInfo;
+
+/**
+ * Résultat d'une résolution de route : la méthode trouvée et les valeurs
+ * des variables de chemin, dans l'ordre de MethodInfo.getPathParamNames().
+ */
+public final class RouteMatch {
+    private static final String[] NO_VALUES = new String[0];
+
+    private final MethodInfo methodInfo;
+    private final String[] pathValues;
+
+    public RouteMatch(MethodInfo methodInfo, String[] pathValues) {
+        this.methodInfo = methodInfo;
+        this.pathValues = pathValues != null ? pathValues : NO_VALUES;
+    }
+
+    public MethodInfo getMethodInfo() {
+        return methodInfo;
+    }
+
+    public String[] getPathValues() {
+        return pathValues;
+    }
+}
@@ -0,0 +1,149 @@
+package itu.framework.routing;
+
+import itu.framework.scan.ControllerScanner.MethodInfo;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Registre immuable des routes, découpé en une table par méthode HTTP.
+ *
+ * Chaque table contient :
+ * - les URL statiques, indexées par le chemin brut (recherche directe dans l'URI, sans concaténation)
+ * - un RouteTrie pour les URL avec variables {name}
+ *
+ * La résolution d'une URL statique n'alloue rien : le RouteMatch est pré-construit.
+ * Les URL dynamiques résolues peuvent être conservées dans un RouteCache optionnel par méthode,
+ * indexé par l'URI brute (context path inclus, constant pour une application).
+ * Les routes sans @HttpMethod explicite peuvent être enregistrées sous "ANY" (repli).
+ */
+public final class RouteRegistry {
+
+    public static final String ANY = "ANY";
+
+    private final Map<String, MethodTable> tables;
+    private final MethodTable anyTable;
+
+    private RouteRegistry(Map<String, MethodTable> tables) {
+        this.tables = tables;
+        this.anyTable = tables.get(ANY);
+    }
+
+    /**
+     * Résout un chemin relatif au contexte.
+     * @param httpMethod La méthode HTTP (GET, POST, ...)
+     * @param uri L'URI de la requête (ex: req.getRequestURI())
+     * @param offset La longueur du context path : le chemin commence à uri[offset]
+     * @return Le RouteMatch trouvé ou null
+     */
+    public RouteMatch resolve(String httpMethod, String uri, int offset) {
+        // URI égale au context path : équivalent à "/"
+        if (offset >= uri.length()) {
+            uri = "/";
+            offset = 0;
+        }
+
+        MethodTable table = tables.get(httpMethod);
+        RouteMatch match;
+
+        // 1. URL statiques : méthode demandée puis ANY
+        if (table != null && (match = table.exact.get(uri, offset, uri.length())) != null) {
+            return match;
+        }
+        if (anyTable != null && (match = anyTable.exact.get(uri, offset, uri.length())) != null) {
+            return match;
+        }
+
+        // 2. URL dynamiques déjà résolues
+        RouteCache cache = table != null ? table.cache : null;
+        if (cache != null && (match = cache.get(uri)) != null) {
+            return match;
+        }
+
+        // 3. URL dynamiques : méthode demandée puis ANY
+        match = table != null ? table.dynamic.match(uri, offset) : null;
+        if (match == null && anyTable != null) {
+            match = anyTable.dynamic.match(uri, offset);
+        }
+        if (match != null && cache != null) {
+            cache.put(uri, match);
+        }
+        return match;
+    }
+
+    /**
+     * Résout un chemin commençant par "/".
+     */
+    public RouteMatch resolve(String httpMethod, String path) {
+        return resolve(httpMethod, path, 0);
+    }
+
+    /**
+     * @return le cache des routes dynamiques pour cette méthode HTTP, ou null si désactivé
+     */
+    public RouteCache getRouteCache(String httpMethod) {
+        MethodTable table = tables.get(httpMethod);
+        return table != null ? table.cache : null;
+    }
+
+    /**
+     * @return les méthodes HTTP ayant au moins une route
+     */
+    public Set<String> getHttpMethods() {
+        return tables.keySet();
+    }
+
+    private static final class MethodTable {
+        final SegmentTable<RouteMatch> exact;
+        final RouteTrie dynamic;
+        final RouteCache cache;
+
+        MethodTable(SegmentTable<RouteMatch> exact, RouteTrie dynamic, RouteCache cache) {
+            this.exact = exact;
+            this.dynamic = dynamic;
+            this.cache = cache;
+        }
+    }
+
+    /**
+     * Construit un RouteRegistry route par route.
+     */
+    public static final class Builder {
+        private final Map<String, Map<String, RouteMatch>> exact = new HashMap<>();
+        private final Map<String, RouteTrie.Builder> dynamic = new HashMap<>();
+        private int routeCacheSize;
+
+        /**
+         * Active un cache LRU des routes dynamiques de la taille donnée, par méthode HTTP.
+         * @param routeCacheSize Nombre maximum d'URI en cache (0 = désactivé)
+         */
+        public Builder routeCacheSize(int routeCacheSize) {
+            this.routeCacheSize = routeCacheSize;
+            return this;
+        }
+
+        public Builder add(String httpMethod, String url, MethodInfo methodInfo) {
+            Map<String, RouteMatch> exactTable = exact.computeIfAbsent(httpMethod, m -> new HashMap<>());
+            RouteTrie.Builder trieBuilder = dynamic.computeIfAbsent(httpMethod, RouteTrie.Builder::new);
+            if (methodInfo.getPathParamNames().isEmpty()) {
+                exactTable.put(url, new RouteMatch(methodInfo, null));
+            } else {
+                trieBuilder.add(url, methodInfo);
+            }
+            return this;
+        }
+
+        public RouteRegistry build() {
+            Map<String, MethodTable> tables = new HashMap<>();
+            for (Map.Entry<String, Map<String, RouteMatch>> entry : exact.entrySet()) {
+                String httpMethod = entry.getKey();
+                RouteCache cache = routeCacheSize > 0 ? new RouteCache(routeCacheSize) : null;
+                tables.put(httpMethod, new MethodTable(new SegmentTable<>(entry.getValue()),
+                                                       dynamic.get(httpMethod).build(),
+                                                       cache));
+            }
+            return new RouteRegistry(Map.copyOf(tables));
+        }
+    }
+}
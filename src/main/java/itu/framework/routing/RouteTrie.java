@@ -0,0 +1,237 @@
+package itu.framework.routing;
+
+import itu.framework.scan.ControllerScanner.MethodInfo;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Arbre de segments (trie) immuable pour résoudre les URL contenant des variables {name},
+ * pour une seule méthode HTTP (voir RouteRegistry).
+ *
+ * Chaque noeud possède des enfants statiques (segment littéral) et des enfants variables,
+ * un par contrainte (voir PathConstraint) et par texte littéral autour de la variable
+ * ("emp-{id}", "{nom}.pdf"). La résolution parcourt le chemin segment par segment en
+ * O(profondeur) : les segments statiques sont toujours essayés avant les variables, puis les
+ * variables entourées du plus de texte, puis de la contrainte la plus spécifique à la moins
+ * spécifique, avec retour arrière si une branche n'aboutit pas. Aucune expression régulière
+ * n'est utilisée.
+ *
+ * Exemple : pour "/employe/42", /employe/nouveau puis /employe/{id:long} puis /employe/{nom}.
+ */
+public final class RouteTrie {
+
+    private final Node root;
+    private final int maxVariables;
+
+    private RouteTrie(Node root, int maxVariables) {
+        this.root = root;
+        this.maxVariables = maxVariables;
+    }
+
+    /**
+     * Résout un chemin.
+     * @param uri La chaîne contenant le chemin (ex: l'URI brute de la requête)
+     * @param offset L'index du "/" qui commence le chemin dans uri
+     * @return Le RouteMatch trouvé ou null si aucune route ne correspond
+     */
+    public RouteMatch match(String uri, int offset) {
+        if (maxVariables == 0 || offset >= uri.length() || uri.charAt(offset) != '/') {
+            return null;
+        }
+        int[] captures = new int[maxVariables * 2];
+        MethodInfo methodInfo = find(root, uri, offset + 1, captures, 0);
+        if (methodInfo == null) {
+            return null;
+        }
+
+        int count = methodInfo.getPathParamNames().size();
+        String[] values = new String[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = uri.substring(captures[i * 2], captures[i * 2 + 1]);
+        }
+        return new RouteMatch(methodInfo, values);
+    }
+
+    private static MethodInfo find(Node node, String path, int start, int[] captures, int varIndex) {
+        // Fin du chemin atteinte : le noeud courant doit porter un handler
+        if (start > path.length()) {
+            return node.handler;
+        }
+
+        int end = path.indexOf('/', start);
+        if (end < 0) {
+            end = path.length();
+        }
+
+        // 1. Segment statique d'abord (le plus spécifique)
+        Node staticChild = node.staticChildren.get(path, start, end);
+        if (staticChild != null) {
+            MethodInfo found = find(staticChild, path, end + 1, captures, varIndex);
+            if (found != null) {
+                return found;
+            }
+        }
+
+        // 2. Puis les variables, de la plus spécifique à la moins spécifique
+        PathConstraint[] constraints = node.variableConstraints;
+        for (int i = 0; i < constraints.length; i++) {
+            PathConstraint constraint = constraints[i];
+            if (constraint.isCatchAll()) {
+                // {rest:*} : capture tout le reste du chemin, "/" compris
+                MethodInfo handler = node.variableChildren[i].handler;
+                if (handler != null && start < path.length()) {
+                    captures[varIndex * 2] = start;
+                    captures[varIndex * 2 + 1] = path.length();
+                    return handler;
+                }
+                continue;
+            }
+            // Texte littéral autour de la variable ("emp-{id}") : seul l'intérieur est capturé
+            String prefix = node.variablePrefixes[i];
+            String suffix = node.variableSuffixes[i];
+            int valueStart = start + prefix.length();
+            int valueEnd = end - suffix.length();
+            if (valueStart <= valueEnd
+                    && path.startsWith(prefix, start) && path.startsWith(suffix, valueEnd)
+                    && constraint.matches(path, valueStart, valueEnd)) {
+                captures[varIndex * 2] = valueStart;
+                captures[varIndex * 2 + 1] = valueEnd;
+                MethodInfo found = find(node.variableChildren[i], path, end + 1, captures, varIndex + 1);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Construit un RouteTrie à partir des routes d'une méthode HTTP.
+     */
+    public static final class Builder {
+        private final String httpMethod;
+        private final MutableNode root = new MutableNode();
+        private int maxVariables;
+
+        public Builder(String httpMethod) {
+            this.httpMethod = httpMethod;
+        }
+
+        /**
+         * Ajoute une route.
+         * @throws IllegalArgumentException si une autre méthode occupe déjà la même forme d'URL
+         */
+        public Builder add(String url, MethodInfo methodInfo) {
+            MutableNode current = root;
+            int variables = 0;
+            List<String> segments = UrlTemplate.segments(url);
+            for (int i = 0; i < segments.size(); i++) {
+                String segment = segments.get(i);
+                if (UrlTemplate.isVariable(segment)) {
+                    PathConstraint constraint = UrlTemplate.variableConstraint(segment);
+                    if (constraint.isCatchAll() && i != segments.size() - 1) {
+                        throw new IllegalArgumentException(
+                            "[ControllerScanner] ERREUR: Dans l'URL '" + url + "', la variable " + segment +
+                            " doit être le dernier segment."
+                        );
+                    }
+                    String prefix = UrlTemplate.variablePrefix(segment);
+                    String suffix = UrlTemplate.variableSuffix(segment);
+                    current = current.variableChildren.computeIfAbsent(prefix + "{" + constraint.getSpec() + "}" + suffix,
+                            key -> new MutableNode(constraint, prefix, suffix));
+                    variables++;
+                } else {
+                    current = current.staticChildren.computeIfAbsent(segment, s -> new MutableNode());
+                }
+            }
+
+            MethodInfo existing = current.handler;
+            if (existing != null && existing != methodInfo) {
+                throw new IllegalArgumentException(
+                    "[ControllerScanner] ERREUR: L'URL '" + url + "' pour la méthode HTTP '" + httpMethod +
+                    "' est ambiguë avec '" + existing.getUrlPattern() + "' de " +
+                    existing.getControllerClass().getSimpleName() + "." + existing.getMethod().getName() + "()."
+                );
+            }
+            current.handler = methodInfo;
+            maxVariables = Math.max(maxVariables, variables);
+            return this;
+        }
+
+        public RouteTrie build() {
+            return new RouteTrie(root.freeze(), maxVariables);
+        }
+    }
+
+    private static final class MutableNode {
+        final Map<String, MutableNode> staticChildren = new HashMap<>();
+        // Enfants variables indexés par préfixe + {contrainte} + suffixe
+        final Map<String, MutableNode> variableChildren = new HashMap<>();
+        final PathConstraint constraint;
+        final String prefix;
+        final String suffix;
+        MethodInfo handler;
+
+        MutableNode() {
+            this(null, "", "");
+        }
+
+        MutableNode(PathConstraint constraint, String prefix, String suffix) {
+            this.constraint = constraint;
+            this.prefix = prefix;
+            this.suffix = suffix;
+        }
+
+        int affixLength() {
+            return prefix.length() + suffix.length();
+        }
+
+        Node freeze() {
+            Map<String, Node> children = new HashMap<>();
+            for (Map.Entry<String, MutableNode> entry : staticChildren.entrySet()) {
+                children.put(entry.getKey(), entry.getValue().freeze());
+            }
+
+            // Ordre déterministe : texte littéral le plus long, priorité de la contrainte, puis forme
+            List<MutableNode> variables = new ArrayList<>(variableChildren.values());
+            variables.sort(Comparator.comparingInt((MutableNode n) -> -n.affixLength())
+                                     .thenComparingInt(n -> n.constraint.getPriority())
+                                     .thenComparing(n -> n.prefix + "{" + n.constraint.getSpec() + "}" + n.suffix));
+            PathConstraint[] constraints = new PathConstraint[variables.size()];
+            String[] prefixes = new String[variables.size()];
+            String[] suffixes = new String[variables.size()];
+            Node[] variableNodes = new Node[variables.size()];
+            for (int i = 0; i < variables.size(); i++) {
+                constraints[i] = variables.get(i).constraint;
+                prefixes[i] = variables.get(i).prefix;
+                suffixes[i] = variables.get(i).suffix;
+                variableNodes[i] = variables.get(i).freeze();
+            }
+            return new Node(new SegmentTable<>(children), constraints, prefixes, suffixes, variableNodes, handler);
+        }
+    }
+
+    private static final class Node {
+        final SegmentTable<Node> staticChildren;
+        final PathConstraint[] variableConstraints;
+        final String[] variablePrefixes;
+        final String[] variableSuffixes;
+        final Node[] variableChildren;
+        final MethodInfo handler;
+
+        Node(SegmentTable<Node> staticChildren, PathConstraint[] variableConstraints, String[] variablePrefixes,
+             String[] variableSuffixes, Node[] variableChildren, MethodInfo handler) {
+            this.staticChildren = staticChildren;
+            this.variableConstraints = variableConstraints;
+            this.variablePrefixes = variablePrefixes;
+            this.variableSuffixes = variableSuffixes;
+            this.variableChildren = variableChildren;
+            this.handler = handler;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package itu.framework.routing;
+
+import java.util.Map;
+
+/**
+ * Table immuable à adressage ouvert dont les clés sont des String,
+ * mais interrogeable avec une portion [start, end) d'une autre String.
+ * Le hash est calculé comme String.hashCode() directement sur la portion,
+ * ce qui évite tout substring ou concaténation lors de la recherche.
+ */
+final class SegmentTable<V> {
+
+    private final String[] keys;
+    private final Object[] values;
+    private final int mask;
+
+    SegmentTable(Map<String, V> entries) {
+        int capacity = Integer.highestOneBit(Math.max(1, entries.size() * 2 - 1)) << 1;
+        this.keys = new String[capacity];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+        for (Map.Entry<String, V> entry : entries.entrySet()) {
+            int slot = entry.getKey().hashCode() & mask;
+            while (keys[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = entry.getKey();
+            values[slot] = entry.getValue();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(String source, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + source.charAt(i);
+        }
+        int length = end - start;
+        int slot = hash & mask;
+        String key;
+        while ((key = keys[slot]) != null) {
+            if (key.length() == length && source.regionMatches(start, key, 0, length)) {
+                return (V) values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,107 @@
+package itu.framework.routing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utilitaires d'analyse des URL annotées avec @Url (ex: /employe/{id:long}/fiche).
+ * Utilisés à la fois par le scan des contrôleurs et par la construction du RouteTrie,
+ * pour que les deux découpent les URL exactement de la même façon que la résolution.
+ */
+public final class UrlTemplate {
+
+    private UrlTemplate() {
+    }
+
+    /**
+     * Découpe une URL en segments : "/a/{id}" -> ["a", "{id}"], "/" -> [""], "/a/" -> ["a", ""]
+     */
+    public static List<String> segments(String url) {
+        List<String> segments = new ArrayList<>();
+        int start = url.startsWith("/") ? 1 : 0;
+        while (start <= url.length()) {
+            int end = url.indexOf('/', start);
+            if (end < 0) {
+                end = url.length();
+            }
+            segments.add(url.substring(start, end));
+            start = end + 1;
+        }
+        return segments;
+    }
+
+    /**
+     * Vérifie la syntaxe d'un segment : au plus une variable, éventuellement entourée de texte
+     * littéral ("emp-{id}", "{nom}.pdf"). Une accolade isolée, deux variables dans le même segment
+     * ou du texte autour de {rest:*} sont refusés, de même qu'une contrainte inconnue.
+     * @throws IllegalArgumentException si le segment est mal formé
+     */
+    public static void validateSegment(String segment) {
+        int open = segment.indexOf('{');
+        int close = segment.lastIndexOf('}');
+        if (open < 0 && close < 0) {
+            return;
+        }
+        if (open < 0 || close < open) {
+            throw new IllegalArgumentException("accolade isolée dans le segment '" + segment + "'");
+        }
+        String body = segment.substring(open + 1, close);
+        if (body.indexOf('{') >= 0 || body.indexOf('}') >= 0) {
+            throw new IllegalArgumentException("une seule variable est permise par segment ('" + segment + "')");
+        }
+        if (variableName(segment).isEmpty()) {
+            throw new IllegalArgumentException("variable sans nom dans le segment '" + segment + "'");
+        }
+        PathConstraint constraint = variableConstraint(segment);
+        boolean affixed = open > 0 || close < segment.length() - 1;
+        if (affixed && constraint.isCatchAll()) {
+            throw new IllegalArgumentException("la variable " + segment.substring(open, close + 1) +
+                    " doit occuper tout le segment");
+        }
+    }
+
+    /**
+     * @return true si le segment contient une variable : {name}, {name:contrainte}, ou avec du
+     * texte autour (ex: "emp-{id}")
+     */
+    public static boolean isVariable(String segment) {
+        int open = segment.indexOf('{');
+        return open >= 0 && segment.indexOf('}', open) > open + 1;
+    }
+
+    /**
+     * @return le texte littéral avant la variable : "emp-{id}" -> "emp-", "{id}" -> ""
+     */
+    public static String variablePrefix(String segment) {
+        return segment.substring(0, segment.indexOf('{'));
+    }
+
+    /**
+     * @return le texte littéral après la variable : "{nom}.pdf" -> ".pdf", "{id}" -> ""
+     */
+    public static String variableSuffix(String segment) {
+        return segment.substring(segment.lastIndexOf('}') + 1);
+    }
+
+    /**
+     * @return le nom de la variable : "{id:long}" -> "id"
+     */
+    public static String variableName(String segment) {
+        String body = variableBody(segment);
+        int colon = body.indexOf(':');
+        return (colon < 0 ? body : body.substring(0, colon)).trim();
+    }
+
+    /**
+     * @return la contrainte de la variable : "{id:long}" -> PathConstraint.LONG, "{id}" -> PathConstraint.STRING
+     */
+    public static PathConstraint variableConstraint(String segment) {
+        String body = variableBody(segment);
+        int colon = body.indexOf(':');
+        return PathConstraint.parse(colon < 0 ? null : body.substring(colon + 1).trim());
+    }
+
+    private static String variableBody(String segment) {
+        return segment.substring(segment.indexOf('{') + 1, segment.lastIndexOf('}'));
+    }
+}
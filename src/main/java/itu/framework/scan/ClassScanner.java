@@ -1,5 +1,7 @@
 package itu.framework.scan;
 
+import itu.framework.log.Logger;
+
 import java.io.File;
 import java.io.IOException;
 import java.net.JarURLConnection;
@@ -12,34 +14,35 @@ import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 
 public class ClassScanner {
+    private static final Logger LOG = Logger.get("ClassScanner");
+
     public static List<Class<?>> scan(String basePackage) {
         List<Class<?>> classes = new ArrayList<>();
         String pkgPath = basePackage.replace('.', '/');
-        System.out.println("[ClassScanner] Scanning package: " + basePackage + " (" + pkgPath + ")");
+        LOG.info("Scanning package: " + basePackage + " (" + pkgPath + ")");
         try {
             Enumeration<URL> resources = Thread.currentThread().getContextClassLoader().getResources(pkgPath);
-            System.out.println("[ClassScanner] Resources found: " + (resources.hasMoreElements() ? "YES" : "NO"));
+            LOG.debug(() -> "Resources found: " + (resources.hasMoreElements() ? "YES" : "NO"));
             while (resources.hasMoreElements()) {
                 URL url = resources.nextElement();
-                System.out.println("[ClassScanner] Found URL: " + url);
-                System.out.println("[ClassScanner] Protocol: " + url.getProtocol());
+                LOG.debug(() -> "Found URL: " + url + " (protocol: " + url.getProtocol() + ")");
                 switch (url.getProtocol()) {
                     case "file" -> scanFile(basePackage, URLDecoder.decode(url.getFile(), java.nio.charset.StandardCharsets.UTF_8), classes);
                     case "jar" -> scanJar(basePackage, pkgPath, url, classes);
                 }
             }
         } catch (IOException e) {
-            System.err.println("[ClassScanner] IOException: " + e.getMessage());
+            LOG.error("IOException: " + e.getMessage());
         }
-        System.out.println("[ClassScanner] Total classes found: " + classes.size());
+        LOG.info("Total classes found: " + classes.size());
         return classes;
     }
 
     private static void scanFile(String base, String path, List<Class<?>> out) {
-        System.out.println("[ClassScanner] Scanning file path: " + path);
+        LOG.debug(() -> "Scanning file path: " + path);
         File dir = new File(path);
         if (!dir.exists()) {
-            System.out.println("[ClassScanner] Directory does not exist: " + path);
+            LOG.warn("Directory does not exist: " + path);
             return;
         }
         File[] files = dir.listFiles();
@@ -48,12 +51,12 @@ public class ClassScanner {
             if (f.isDirectory()) scanFile(base + "." + f.getName(), f.getAbsolutePath(), out);
             else if (f.getName().endsWith(".class")) {
                 String cn = base + "." + f.getName().substring(0, f.getName().length() - 6);
-                System.out.println("[ClassScanner] Found class: " + cn);
+                LOG.debug(() -> "Found class: " + cn);
                 try { 
                     out.add(Class.forName(cn));
-                    System.out.println("[ClassScanner] ✓ Loaded: " + cn);
+                    LOG.debug(() -> "✓ Loaded: " + cn);
                 } catch (ClassNotFoundException e) {
-                    System.err.println("[ClassScanner] ✗ Cannot load: " + cn);
+                    LOG.error("✗ Cannot load: " + cn);
                 }
             }
         }
@@ -3,9 +3,24 @@ package itu.framework.scan;
 import itu.framework.annotation.Controller;
 import itu.framework.annotation.HttpMethod;
 import itu.framework.annotation.Json;
+import itu.framework.annotation.Multipart;
 import itu.framework.annotation.RequestParameter;
 import itu.framework.annotation.Session;
+import itu.framework.annotation.SlowThreshold;
 import itu.framework.annotation.Url;
+import itu.framework.bind.ParameterBinder;
+import itu.framework.bind.ParameterBinders;
+import itu.framework.invoke.ControllerProvider;
+import itu.framework.invoke.MethodInvoker;
+import itu.framework.json.ResultSerializer;
+import itu.framework.log.Logger;
+import itu.framework.metrics.RouteMetrics;
+import itu.framework.multipart.MultipartLimits;
+import itu.framework.routing.PathConstraint;
+import itu.framework.routing.RouteRegistry;
+import itu.framework.routing.UrlTemplate;
+import itu.framework.security.AccessRule;
+import itu.framework.security.RoleIndex;
 import itu.framework.web.UploadFile;
 import itu.framework.scan.ParameterTypeValidator;
 
@@ -16,16 +31,18 @@ import java.lang.reflect.Type;
 import java.lang.reflect.ParameterizedType;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Set;
 
 /**
  * Scanner qui détecte les contrôleurs et leurs mappings
  */
 public class ControllerScanner {
     
+    private static final Logger LOG = Logger.get("ControllerScanner");
+    
     /**
      * Classe interne pour stocker les informations d'un mapping
      */
@@ -40,16 +57,36 @@ public class ControllerScanner {
         private List<Type> genericParameterTypes;
         // Liste des clés RequestParameter (null si pas d'annotation)
         private List<String> parameterKeys;
-        // Pattern pour matcher les URL avec variables ex: /employe/{id}
-        private Pattern pathPattern;
-        // Noms des variables dans l'ordre
+        // Noms des variables dans l'ordre ex: /employe/{id:long} -> [id]
         private List<String> pathParamNames;
+        // Contraintes des variables, dans le même ordre que pathParamNames
+        private List<PathConstraint> pathParamConstraints;
+        // Pour chaque paramètre de la méthode : index de sa variable de chemin (-1 si aucune)
+        private int[] pathVariableIndexes;
         // L'URL telle qu'annotée (ex: /employe/{id})
         private String urlPattern;
         // Indique si la méthode est annotée avec @Json
         private boolean isJsonMethod;
+        // Sérialiseur du résultat d'une méthode @Json, compilé depuis le type de retour générique
+        private ResultSerializer resultSerializer;
         // Index du paramètre annoté @Session (-1 si aucun)
         private int sessionParameterIndex;
+        // Appel précompilé de la méthode (MethodHandle ou réflexion)
+        private MethodInvoker invoker;
+        // Fournisseur d'instances du contrôleur selon son scope (créé par FrameworkListener)
+        private ControllerProvider controllerProvider;
+        // Plan de liaison des arguments : une stratégie par paramètre, compilée au scan
+        private ParameterBinder[] argumentBinders;
+        // Indique si un paramètre (ou un POJO lié) reçoit des fichiers uploadés
+        private boolean uploadConsumer;
+        // Limites du parseur multipart du framework (@Multipart), null : parseur du conteneur
+        private MultipartLimits multipartLimits;
+        // Règle d'accès compilée depuis @Authorized et @Role
+        private AccessRule accessRule;
+        // Compteurs et latences de la route, alimentés par FrontServlet
+        private final RouteMetrics metrics = new RouteMetrics();
+        // Seuil de requête lente (@SlowThreshold) en millisecondes, -1 : seuil par défaut de web.xml
+        private long slowThresholdMillis;
         
         public MethodInfo(Class<?> controllerClass, Method method) {
             this.controllerClass = controllerClass;
@@ -59,8 +96,13 @@ public class ControllerScanner {
             this.genericParameterTypes = new ArrayList<>();
             this.parameterKeys = new ArrayList<>();
             this.pathParamNames = new ArrayList<>();
+            this.pathParamConstraints = new ArrayList<>();
+            this.pathVariableIndexes = new int[0];
+            this.argumentBinders = new ParameterBinder[0];
             this.isJsonMethod = false;
             this.sessionParameterIndex = -1;
+            this.accessRule = AccessRule.NONE;
+            this.slowThresholdMillis = -1;
         }
         
         public Class<?> getControllerClass() {
@@ -103,14 +145,6 @@ public class ControllerScanner {
             this.parameterKeys = parameterKeys;
         }
 
-        public Pattern getPathPattern() {
-            return pathPattern;
-        }
-
-        public void setPathPattern(Pattern pathPattern) {
-            this.pathPattern = pathPattern;
-        }
-
         public List<String> getPathParamNames() {
             return pathParamNames;
         }
@@ -119,6 +153,25 @@ public class ControllerScanner {
             this.pathParamNames = pathParamNames;
         }
 
+        public List<PathConstraint> getPathParamConstraints() {
+            return pathParamConstraints;
+        }
+
+        public void setPathParamConstraints(List<PathConstraint> pathParamConstraints) {
+            this.pathParamConstraints = pathParamConstraints;
+        }
+
+        /**
+         * @return l'index dans pathParamNames de la variable liée au paramètre, ou -1
+         */
+        public int getPathVariableIndex(int parameterIndex) {
+            return parameterIndex < pathVariableIndexes.length ? pathVariableIndexes[parameterIndex] : -1;
+        }
+
+        public void setPathVariableIndexes(int[] pathVariableIndexes) {
+            this.pathVariableIndexes = pathVariableIndexes;
+        }
+
         public String getUrlPattern() { return urlPattern; }
 
         public void setUrlPattern(String urlPattern) { this.urlPattern = urlPattern; }
@@ -126,12 +179,52 @@ public class ControllerScanner {
         public boolean isJsonMethod() { return isJsonMethod; }
 
         public void setJsonMethod(boolean jsonMethod) { isJsonMethod = jsonMethod; }
+
+        public ResultSerializer getResultSerializer() { return resultSerializer; }
+
+        public void setResultSerializer(ResultSerializer resultSerializer) { this.resultSerializer = resultSerializer; }
         
         public int getSessionParameterIndex() { return sessionParameterIndex; }
         
         public void setSessionParameterIndex(int sessionParameterIndex) { 
             this.sessionParameterIndex = sessionParameterIndex; 
         }
+
+        public MethodInvoker getInvoker() { return invoker; }
+
+        public void setInvoker(MethodInvoker invoker) { this.invoker = invoker; }
+
+        public ParameterBinder[] getArgumentBinders() { return argumentBinders; }
+
+        public void setArgumentBinders(ParameterBinder[] argumentBinders) { this.argumentBinders = argumentBinders; }
+
+        /**
+         * @return true si la liaison des arguments lit les parts multipart ; sinon FrontServlet
+         * n'y touche jamais
+         */
+        public boolean isUploadConsumer() { return uploadConsumer; }
+
+        public void setUploadConsumer(boolean uploadConsumer) { this.uploadConsumer = uploadConsumer; }
+
+        public MultipartLimits getMultipartLimits() { return multipartLimits; }
+
+        public void setMultipartLimits(MultipartLimits multipartLimits) { this.multipartLimits = multipartLimits; }
+
+        public AccessRule getAccessRule() { return accessRule; }
+
+        public void setAccessRule(AccessRule accessRule) { this.accessRule = accessRule; }
+
+        public RouteMetrics getMetrics() { return metrics; }
+
+        public long getSlowThresholdMillis() { return slowThresholdMillis; }
+
+        public void setSlowThresholdMillis(long slowThresholdMillis) { this.slowThresholdMillis = slowThresholdMillis; }
+
+        public ControllerProvider getControllerProvider() { return controllerProvider; }
+
+        public void setControllerProvider(ControllerProvider controllerProvider) {
+            this.controllerProvider = controllerProvider;
+        }
     }
     
     /**
@@ -140,21 +233,32 @@ public class ControllerScanner {
      * @return Une Map avec clé = "METHOD:URL" et valeur = MethodInfo (classe + méthode)
      */
     public static Map<String, MethodInfo> scanControllers(String basePackage) {
+        return scanControllers(basePackage, MethodInvoker.Strategy.METHOD_HANDLE);
+    }
+    
+    /**
+     * Scanne un package pour trouver les contrôleurs et enregistrer leurs mappings
+     * @param basePackage Le package à scanner
+     * @param invocationStrategy La stratégie utilisée pour précompiler l'appel de chaque méthode
+     * @return Une Map avec clé = "METHOD:URL" et valeur = MethodInfo (classe + méthode)
+     */
+    public static Map<String, MethodInfo> scanControllers(String basePackage, MethodInvoker.Strategy invocationStrategy) {
         Map<String, MethodInfo> mappings = new HashMap<>();
         
-        System.out.println("\n[ControllerScanner] Début du scan du package: " + basePackage);
+        LOG.info("Début du scan du package: " + basePackage);
         
         // Récupère toutes les classes du package
         List<Class<?>> classes = ClassScanner.scan(basePackage);
         
-        System.out.println("[ControllerScanner] Classes trouvées: " + classes.size());
+        LOG.info("Classes trouvées: " + classes.size());
         
         // Parcourt chaque classe
         for (Class<?> clazz : classes) {
             // Vérifie si la classe a l'annotation @Controller
             if (clazz.isAnnotationPresent(Controller.class)) {
-                System.out.println("[ControllerScanner] Contrôleur trouvé: " + clazz.getName());
-                scanControllerMethods(clazz, mappings);
+                LOG.info("Contrôleur trouvé: " + clazz.getName());
+                warnIfStatefulSingleton(clazz);
+                scanControllerMethods(clazz, mappings, invocationStrategy);
             }
         }
         
@@ -162,10 +266,35 @@ public class ControllerScanner {
         return mappings;
     }
     
+    /**
+     * Avertit si un contrôleur SINGLETON possède des champs d'instance modifiables :
+     * ils seraient partagés entre toutes les requêtes concurrentes.
+     */
+    private static void warnIfStatefulSingleton(Class<?> controllerClass) {
+        Controller annotation = controllerClass.getAnnotation(Controller.class);
+        if (annotation.scope() != Controller.Scope.SINGLETON) {
+            return;
+        }
+        for (Class<?> current = controllerClass; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (java.lang.reflect.Field field : current.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (!java.lang.reflect.Modifier.isStatic(modifiers) && !java.lang.reflect.Modifier.isFinal(modifiers)
+                        && !field.isSynthetic()) {
+                    LOG.warn("ATTENTION: Le contrôleur SINGLETON " +
+                             controllerClass.getSimpleName() + " possède le champ modifiable '" +
+                             field.getName() + "' (" + current.getSimpleName() +
+                             "), partagé entre toutes les requêtes.");
+                }
+            }
+        }
+    }
+    
     /**
      * Scanne les méthodes d'un contrôleur pour trouver les mappings
      */
-    private static void scanControllerMethods(Class<?> controllerClass, Map<String, MethodInfo> mappings) {
+    private static void scanControllerMethods(Class<?> controllerClass,
+                                              Map<String, MethodInfo> mappings,
+                                              MethodInvoker.Strategy invocationStrategy) {
         Method[] methods = controllerClass.getDeclaredMethods();
         
         for (Method method : methods) {
@@ -209,23 +338,71 @@ public class ControllerScanner {
                 // Vérifier si la méthode est annotée avec @Json
                 if (method.isAnnotationPresent(Json.class)) {
                     methodInfo.setJsonMethod(true);
+                    // TypeAdapter du type de retour résolu une fois, enveloppe pré-encodée
+                    methodInfo.setResultSerializer(ResultSerializer.forMethod(method));
                 }
 
-                // Détecter des variables de chemin {name} et construire un Pattern
-                List<String> pathParams = new ArrayList<>();
-                if (url.contains("{")) {
-                    Matcher m = Pattern.compile("\\{([^/}]+)\\}").matcher(url);
-                    while (m.find()) {
-                        pathParams.add(m.group(1));
+                // Règle d'accès (@Authorized, @Role) compilée une seule fois
+                methodInfo.setAccessRule(AccessRule.of(method));
+
+                // Limites multipart propres à la route (@Multipart)
+                Multipart multipart = method.getAnnotation(Multipart.class);
+                if (multipart != null) {
+                    try {
+                        methodInfo.setMultipartLimits(MultipartLimits.from(multipart));
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException(
+                            "[ControllerScanner] ERREUR: Dans " + controllerClass.getSimpleName() + "." +
+                            method.getName() + "(), " + e.getMessage()
+                        );
                     }
+                }
 
-                    // Remplacer {name} par un groupe capture ([^/]+)
-                    String regex = "^" + url.replaceAll("\\{[^/}]+\\}", "([^/]+)") + "$";
-                    Pattern pathPattern = Pattern.compile(regex);
+                // Seuil de requête lente propre à la route (@SlowThreshold)
+                SlowThreshold slowThreshold = method.getAnnotation(SlowThreshold.class);
+                if (slowThreshold != null) {
+                    if (slowThreshold.value() < 0) {
+                        throw new IllegalArgumentException(
+                            "[ControllerScanner] ERREUR: @SlowThreshold négatif sur " +
+                            controllerClass.getSimpleName() + "." + method.getName() + "()."
+                        );
+                    }
+                    methodInfo.setSlowThresholdMillis(slowThreshold.value());
+                }
 
-                    methodInfo.setPathParamNames(pathParams);
-                    methodInfo.setPathPattern(pathPattern);
+                // Détecter des variables de chemin {name} ou {name:contrainte}
+                List<String> pathParams = new ArrayList<>();
+                List<PathConstraint> pathConstraints = new ArrayList<>();
+                for (String segment : UrlTemplate.segments(url)) {
+                    try {
+                        UrlTemplate.validateSegment(segment);
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException(
+                            "[ControllerScanner] ERREUR: L'URL '" + url + "' de " + controllerClass.getSimpleName() +
+                            "." + method.getName() + "() : " + e.getMessage()
+                        );
+                    }
+                    if (!UrlTemplate.isVariable(segment)) {
+                        continue;
+                    }
+                    String pathParam = UrlTemplate.variableName(segment);
+                    if (pathParams.contains(pathParam)) {
+                        throw new IllegalArgumentException(
+                            "[ControllerScanner] ERREUR: L'URL '" + url + "' déclare deux fois la variable '{" + pathParam + "}'."
+                        );
+                    }
+                    try {
+                        pathConstraints.add(UrlTemplate.variableConstraint(segment));
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException(
+                            "[ControllerScanner] ERREUR: L'URL '" + url + "' de " + controllerClass.getSimpleName() +
+                            "." + method.getName() + "() : " + e.getMessage()
+                        );
+                    }
+                    pathParams.add(pathParam);
                 }
+                methodInfo.setPathParamNames(pathParams);
+                methodInfo.setPathParamConstraints(pathConstraints);
                 
                 // Extraction des paramètres de la méthode
                 Parameter[] parameters = method.getParameters();
@@ -234,6 +411,7 @@ public class ControllerScanner {
                 List<Class<?>> paramTypes = new ArrayList<>();
                 List<Type> genericParamTypes = new ArrayList<>();
                 List<String> paramKeys = new ArrayList<>();
+                int[] pathVariableIndexes = new int[parameters.length];
                 
                 boolean hasMapParam = false;
                 boolean hasSessionParam = false;
@@ -269,8 +447,22 @@ public class ControllerScanner {
                         // Un paramètre @Session ne compte pas comme Map standard
                     }
                     
+                    // Paramètre lié à une variable de chemin : le type doit être compatible avec la contrainte
+                    int pathIndex = pathParams.indexOf(param.getName());
+                    pathVariableIndexes[i] = pathIndex;
+                    
                     // VALIDATION: String, byte[], Map<String, Object>, @Session Map OU classes POJO personnalisées
-                    if (paramType == String.class) {
+                    if (pathIndex >= 0) {
+                        PathConstraint constraint = pathConstraints.get(pathIndex);
+                        if (!constraint.accepts(paramType)) {
+                            throw new IllegalArgumentException(
+                                "[ControllerScanner] ERREUR: Le paramètre '" + param.getName() + "' de type " +
+                                paramType.getSimpleName() + " ne peut pas recevoir la variable '{" + param.getName() +
+                                ":" + constraint.getSpec() + "}' dans " + controllerClass.getSimpleName() + "." +
+                                method.getName() + "() (types acceptés: " + describeAcceptedTypes(constraint) + ")."
+                            );
+                        }
+                    } else if (paramType == String.class) {
                         // OK - String accepté
                     } else if (paramType == byte[].class) {
                         // OK - byte[] accepté pour les uploads de fichiers
@@ -288,12 +480,6 @@ public class ControllerScanner {
                             }
                             hasMapParam = true;
                         }
-                        if (hasMapParam) {
-                            throw new IllegalArgumentException(
-                                "[ControllerScanner] ERREUR: La méthode " + controllerClass.getSimpleName() +
-                                "." + method.getName() + "() ne peut avoir qu'UN SEUL paramètre de type Map."
-                            );
-                        }
 
                         // 🔒 Vérification Map<String, Object> ou Map<String, UploadFile>
                         if (!(genericType instanceof ParameterizedType)) {
@@ -324,15 +510,15 @@ public class ControllerScanner {
                                 controllerClass.getSimpleName() + "." + method.getName() + "()"
                             );
                         }
-
-                        hasMapParam = true;
+                    } else if (paramType == List.class || paramType == ArrayList.class) {
+                        // OK - List<T> lue depuis un corps JSON (vérifié dans compileArgumentBinders)
                     } else if (paramType.isPrimitive() || paramType.isInterface()) {
                         // Interdire les types primitifs, interfaces
                         throw new IllegalArgumentException(
                             "[ControllerScanner] ERREUR: La méthode " + controllerClass.getSimpleName() + 
                             "." + method.getName() + "() a un paramètre '" + param.getName() + 
                             "' de type " + paramType.getSimpleName() + 
-                            ". Les paramètres doivent être String, UploadFile, Map, @Session Map ou des classes POJO."
+                            ". Les paramètres doivent être String, UploadFile, Map, @Session Map, List (corps JSON) ou des classes POJO."
                         );
                     } else {
                         // OK - Classe POJO personnalisée (sprint 8 bis)
@@ -368,14 +554,6 @@ public class ControllerScanner {
                                 pathParam + "}' mais aucun paramètre de méthode nommé '" + pathParam + "' n'a été trouvé."
                             );
                         }
-
-                        Class<?> candidateType = paramTypes.get(idx);
-                        if (candidateType != String.class) {
-                            throw new IllegalArgumentException(
-                                "[ControllerScanner] ERREUR: Le paramètre '" + pathParam + "' lié à '{" + pathParam +
-                                "}' doit être de type String."
-                            );
-                        }
                     }
                 }
                 
@@ -384,6 +562,9 @@ public class ControllerScanner {
                 methodInfo.setGenericParameterTypes(genericParamTypes);
                 methodInfo.setParameterKeys(paramKeys);
                 methodInfo.setSessionParameterIndex(sessionParamIndex);
+                methodInfo.setPathVariableIndexes(pathVariableIndexes);
+                methodInfo.setInvoker(MethodInvoker.of(method, invocationStrategy));
+                methodInfo.setArgumentBinders(compileArgumentBinders(methodInfo));
 
                 // Enregistrer pour chaque méthode HTTP
                 for (String httpMethod : httpMethods) {
@@ -407,21 +588,179 @@ public class ControllerScanner {
         }
     }
     
+    /**
+     * Compile le plan de liaison des arguments : le type de chaque paramètre n'est
+     * inspecté qu'une fois, ici, et plus jamais pendant les requêtes.
+     */
+    private static ParameterBinder[] compileArgumentBinders(MethodInfo methodInfo) {
+        List<String> paramNames = methodInfo.getParameterNames();
+        List<Class<?>> paramTypes = methodInfo.getParameterTypes();
+        List<Type> genericTypes = methodInfo.getGenericParameterTypes();
+        List<String> paramKeys = methodInfo.getParameterKeys();
+        ParameterBinder[] binders = new ParameterBinder[paramNames.size()];
+        boolean uploadConsumer = false;
+        int jsonBodyIndex = findJsonBodyParameter(methodInfo);
+        
+        for (int i = 0; i < binders.length; i++) {
+            String paramName = paramNames.get(i);
+            Class<?> paramType = paramTypes.get(i);
+            String paramKey = paramKeys.get(i);
+            String fileKey = paramKey != null ? paramKey : paramName;
+            int pathIndex = methodInfo.getPathVariableIndex(i);
+            
+            if (i == methodInfo.getSessionParameterIndex()) {
+                binders[i] = ParameterBinders.session();
+            } else if (pathIndex >= 0) {
+                binders[i] = ParameterBinders.pathVariable(pathIndex, paramType);
+            } else if (paramType == UploadFile.class) {
+                binders[i] = ParameterBinders.uploadFile(fileKey);
+                uploadConsumer = true;
+            } else if (paramType == byte[].class) {
+                binders[i] = ParameterBinders.uploadBytes(fileKey);
+                uploadConsumer = true;
+            } else if (paramType == Map.class || paramType == HashMap.class) {
+                // Map<String, UploadFile> et Map<String, Object> contiennent tous deux les fichiers
+                binders[i] = ParameterBinders.isMapOfUploadFile(genericTypes.get(i))
+                        ? ParameterBinders.uploadMap()
+                        : ParameterBinders.paramMap();
+                uploadConsumer = true;
+            } else if (paramType == String.class) {
+                binders[i] = ParameterBinders.string(paramName, paramKey);
+            } else if (paramType == List.class || paramType == ArrayList.class) {
+                // Une liste n'a pas d'autre source que le corps JSON
+                if (i != jsonBodyIndex) {
+                    throw new IllegalArgumentException(
+                        "[ControllerScanner] ERREUR: Le paramètre '" + paramName + "' de " +
+                        methodInfo.getControllerClass().getSimpleName() + "." + methodInfo.getMethod().getName() +
+                        "() est une liste, liée uniquement depuis un corps JSON : elle doit être le seul " +
+                        "paramètre POJO, Map<String, Object> ou List de la méthode."
+                    );
+                }
+                binders[i] = null;
+            } else {
+                binders[i] = ParameterBinders.pojo(paramName, paramType);
+                uploadConsumer |= ParameterBinders.pojoConsumesUploads(paramType);
+            }
+            if (i == jsonBodyIndex) {
+                // Corps application/json lu dans le type générique ; sinon liaison habituelle
+                binders[i] = ParameterBinders.jsonBody(genericTypes.get(i), binders[i]);
+            }
+        }
+        methodInfo.setUploadConsumer(uploadConsumer);
+        return binders;
+    }
+    
+    /**
+     * Cherche le paramètre qui reçoit un corps JSON : le seul paramètre POJO, Map&lt;String, Object&gt;
+     * ou List de la méthode. Avec plusieurs candidats, aucun ne lit le corps (liaison par formulaire).
+     * @return l'index du paramètre, ou -1
+     */
+    private static int findJsonBodyParameter(MethodInfo methodInfo) {
+        List<Class<?>> paramTypes = methodInfo.getParameterTypes();
+        int found = -1;
+        for (int i = 0; i < paramTypes.size(); i++) {
+            Class<?> type = paramTypes.get(i);
+            if (i == methodInfo.getSessionParameterIndex() || methodInfo.getPathVariableIndex(i) >= 0) {
+                continue;
+            }
+            boolean candidate;
+            if (type == Map.class || type == HashMap.class) {
+                candidate = !ParameterBinders.isMapOfUploadFile(methodInfo.getGenericParameterTypes().get(i));
+            } else if (type == List.class || type == ArrayList.class) {
+                candidate = true;
+            } else {
+                candidate = !type.isPrimitive() && !type.isArray() && type != UploadFile.class
+                        && !type.getName().startsWith("java.");
+            }
+            if (candidate) {
+                if (found >= 0) {
+                    return -1;
+                }
+                found = i;
+            }
+        }
+        return found;
+    }
+    
+    /**
+     * Décrit les types de paramètres acceptés par une contrainte (pour les messages d'erreur)
+     */
+    private static String describeAcceptedTypes(PathConstraint constraint) {
+        if (constraint == PathConstraint.INT) {
+            return "String, int, Integer, long, Long";
+        }
+        if (constraint == PathConstraint.LONG) {
+            return "String, long, Long";
+        }
+        if (constraint == PathConstraint.UUID_CONSTRAINT) {
+            return "String, UUID";
+        }
+        return "String";
+    }
+    
+    /**
+     * Construit le registre des routes, avec une table par méthode HTTP.
+     * @param mappings Les mappings retournés par scanControllers
+     * @return Un RouteRegistry immuable
+     */
+    public static RouteRegistry buildRouteRegistry(Map<String, MethodInfo> mappings) {
+        return buildRouteRegistry(mappings, 0);
+    }
+    
+    /**
+     * Construit le registre des routes avec un cache LRU des routes dynamiques.
+     * @param mappings Les mappings retournés par scanControllers
+     * @param routeCacheSize Taille maximale du cache par méthode HTTP (0 = désactivé)
+     * @return Un RouteRegistry immuable
+     */
+    public static RouteRegistry buildRouteRegistry(Map<String, MethodInfo> mappings, int routeCacheSize) {
+        RouteRegistry.Builder builder = new RouteRegistry.Builder().routeCacheSize(routeCacheSize);
+        for (Map.Entry<String, MethodInfo> entry : mappings.entrySet()) {
+            String key = entry.getKey();
+            String httpMethod = key.substring(0, key.indexOf(':'));
+            builder.add(httpMethod, entry.getValue().getUrlPattern(), entry.getValue());
+        }
+        return builder.build();
+    }
+    
+    /**
+     * Numérote tous les rôles cités par @Role dans un index commun et recalcule chaque règle
+     * d'accès avec cet index : un masque calculé pour une session vaut pour toutes les routes.
+     * @param mappings Les mappings retournés par scanControllers
+     * @return L'index des rôles de l'application
+     */
+    public static RoleIndex indexRoles(Map<String, MethodInfo> mappings) {
+        Set<String> roleNames = new HashSet<>();
+        for (MethodInfo info : mappings.values()) {
+            roleNames.addAll(info.getAccessRule().getRoles());
+        }
+        RoleIndex index = RoleIndex.of(roleNames);
+        for (MethodInfo info : mappings.values()) {
+            info.setAccessRule(info.getAccessRule().withRoleIndex(index));
+        }
+        return index;
+    }
+    
     /**
      * Affiche tous les mappings (pour debug)
      */
     private static void printMappings(Map<String, MethodInfo> mappings) {
-        System.out.println("\n========== MAPPINGS TROUVÉS ==========");
+        if (!LOG.isInfoEnabled()) {
+            return;
+        }
+        StringBuilder sb = new StringBuilder("========== MAPPINGS TROUVÉS ==========");
         if (mappings.isEmpty()) {
-            System.out.println("Aucun mapping trouvé");
+            sb.append("\nAucun mapping trouvé");
         } else {
             for (Map.Entry<String, MethodInfo> entry : mappings.entrySet()) {
                 MethodInfo info = entry.getValue();
-                System.out.println(entry.getKey() + " -> " + 
-                                 info.getControllerClass().getSimpleName() + "." + 
-                                 info.getMethod().getName() + "()");
+                sb.append('\n').append(entry.getKey()).append(" -> ")
+                  .append(info.getControllerClass().getSimpleName()).append('.')
+                  .append(info.getMethod().getName()).append("()");
             }
         }
-        System.out.println("======================================\n");
+        sb.append("\n======================================");
+        // Un seul message : les lignes du tableau ne sont pas entrecoupées par d'autres threads
+        LOG.info(sb.toString());
     }
 }
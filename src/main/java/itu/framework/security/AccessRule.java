@@ -0,0 +1,269 @@
+package itu.framework.security;
+
+import jakarta.servlet.http.HttpSession;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Règle d'accès d'une méthode de contrôleur, compilée une fois par ControllerScanner à partir
+ * de @Authorized et @Role.
+ *
+ * Les annotations sont cherchées par nom canonique (évite les problèmes de classloader) et la
+ * liste de rôles est convertie au scan en masque de bits (voir RoleIndex) : la vérification
+ * d'une requête ne fait qu'une lecture d'attribut de session et un test sur BitSet. Les rôles
+ * de la session sont toujours donnés par nom (String, Collection, tableau ou RoleSet), jamais
+ * par numéro : les numéros changent d'un rechargement à l'autre.
+ */
+public final class AccessRule {
+
+    /**
+     * Aucune contrainte : ni @Authorized ni @Role.
+     */
+    public static final AccessRule NONE = new AccessRule(false, Collections.emptySet(), null, false, null);
+
+    private static final String AUTHORIZED_ANNOTATION = "itu.framework.annotation.Authorized";
+    private static final String ROLE_ANNOTATION = "itu.framework.annotation.Role";
+
+    private final boolean authenticationRequired;
+    // Rôles cités par @Role (noms internés), vide si @Role est absent
+    private final Set<String> roles;
+    // Valeur brute de @Role, pour les messages d'erreur
+    private final String rolesLabel;
+    // true : tous les rôles sont exigés (Role.Match.ALL), false : un seul suffit
+    private final boolean allRequired;
+    private final RoleIndex roleIndex;
+    private final BitSet requiredMask;
+    // Rôle unique requis (numéro dans roleIndex), -1 si plusieurs : évite tout BitSet pour un String
+    private final int singleRoleId;
+
+    private AccessRule(boolean authenticationRequired, Set<String> roles, String rolesLabel,
+                       boolean allRequired, RoleIndex roleIndex) {
+        this.authenticationRequired = authenticationRequired;
+        this.roles = roles;
+        this.rolesLabel = rolesLabel;
+        this.allRequired = allRequired;
+        // Sans index global (règle isolée), un index local aux rôles de la règle
+        this.roleIndex = roleIndex != null ? roleIndex : RoleIndex.of(roles);
+        this.requiredMask = this.roleIndex.maskOf(roles);
+        this.singleRoleId = roles.size() == 1 ? this.roleIndex.idOf(roles.iterator().next()) : -1;
+    }
+
+    /**
+     * Compile la règle d'accès d'une méthode.
+     * @throws IllegalArgumentException si @Role est présent sans aucun rôle
+     */
+    public static AccessRule of(Method method) {
+        Annotation authorized = findAnnotationByName(method, AUTHORIZED_ANNOTATION);
+        Annotation role = findAnnotationByName(method, ROLE_ANNOTATION);
+        if (authorized == null && role == null) {
+            return NONE;
+        }
+
+        Set<String> roles = Collections.emptySet();
+        String rolesLabel = null;
+        boolean allRequired = false;
+        if (role != null) {
+            rolesLabel = getRoleValue(role);
+            allRequired = "ALL".equals(getMatchValue(role));
+            Set<String> parsed = new LinkedHashSet<>();
+            if (rolesLabel != null) {
+                for (String name : rolesLabel.split(",")) {
+                    if (!name.trim().isEmpty()) {
+                        parsed.add(name.trim().intern());
+                    }
+                }
+            }
+            if (parsed.isEmpty()) {
+                throw new IllegalArgumentException(
+                    "[ControllerScanner] ERREUR: @Role sans valeur définie sur " +
+                    method.getDeclaringClass().getSimpleName() + "." + method.getName() + "()."
+                );
+            }
+            roles = Collections.unmodifiableSet(parsed);
+        }
+        return new AccessRule(authorized != null, roles, rolesLabel, allRequired, null);
+    }
+
+    /**
+     * @return la même règle, avec des masques calculés dans l'index global des rôles
+     */
+    public AccessRule withRoleIndex(RoleIndex index) {
+        if (this == NONE) {
+            return NONE;
+        }
+        return new AccessRule(authenticationRequired, roles, rolesLabel, allRequired, index);
+    }
+
+    public boolean isAuthenticationRequired() {
+        return authenticationRequired;
+    }
+
+    public boolean isRoleRequired() {
+        return !roles.isEmpty();
+    }
+
+    /**
+     * @return true si tous les rôles sont exigés (Role.Match.ALL)
+     */
+    public boolean isAllRolesRequired() {
+        return allRequired;
+    }
+
+    /**
+     * @return les rôles cités par @Role, vide si aucun rôle n'est requis
+     */
+    public Set<String> getRoles() {
+        return roles;
+    }
+
+    /**
+     * Vérifie la session (existante, jamais créée ici) par rapport à la règle.
+     * @param authAttribute Attribut de session d'authentification (web.xml), null si non configuré
+     * @param roleAttribute Attribut de session des rôles (web.xml), null si non configuré
+     * @return un message d'erreur si l'accès est refusé, null si l'accès est autorisé
+     */
+    public String check(HttpSession httpSession, String authAttribute, String roleAttribute) {
+        // ===== Vérification @Authorized =====
+        if (authenticationRequired) {
+            if (authAttribute == null) {
+                return "Erreur: @Authorized utilisé mais 'authAttribute' non configuré dans web.xml";
+            }
+
+            // Pas de session = pas connecté = accès refusé
+            if (httpSession == null) {
+                return "Accès refusé: authentification requise (aucune session active)";
+            }
+
+            // Vérifier que l'attribut d'authentification existe en session
+            if (httpSession.getAttribute(authAttribute) == null) {
+                return "Accès refusé: authentification requise (attribut '" + authAttribute + "' absent de la session)";
+            }
+        }
+
+        // ===== Vérification @Role =====
+        if (!roles.isEmpty()) {
+            if (roleAttribute == null) {
+                return "Erreur: @Role utilisé mais 'roleAttribute' non configuré dans web.xml";
+            }
+
+            // Pas de session = pas de rôle = accès refusé
+            if (httpSession == null) {
+                return "Accès refusé: rôle requis (aucune session active)";
+            }
+
+            Object roleValue = httpSession.getAttribute(roleAttribute);
+            if (roleValue == null) {
+                return "Accès refusé: rôle requis (attribut '" + roleAttribute + "' absent de la session)";
+            }
+
+            boolean granted;
+            if (roleValue instanceof String) {
+                // Un seul rôle : un test de bit, sans BitSet intermédiaire
+                int id = roleIndex.idOf((String) roleValue);
+                granted = id >= 0 && requiredMask.get(id) && (!allRequired || singleRoleId == id);
+            } else if (roleValue instanceof RoleSet) {
+                granted = matches(((RoleSet) roleValue).maskIn(roleIndex));
+            } else if (roleValue instanceof Collection<?>) {
+                // Recalculé à chaque requête : une Collection peut être modifiée sur place
+                granted = matches(roleIndex.maskOf((Collection<?>) roleValue));
+            } else if (roleValue instanceof Object[]) {
+                granted = matches(roleIndex.maskOf(Arrays.asList((Object[]) roleValue)));
+            } else {
+                return "Erreur: l'attribut de rôle doit être un String, une Collection<String>, un String[] ou un RoleSet";
+            }
+
+            if (!granted) {
+                return "Accès refusé: rôle insuffisant. Requis: [" + rolesLabel + "]" +
+                       (allRequired ? " (tous)" : "") + ", votre rôle: [" + describeRoles(roleValue) + "]";
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * ANY : au moins un bit commun. ALL : chaque bit requis présent chez l'utilisateur.
+     */
+    private boolean matches(BitSet userMask) {
+        if (!allRequired) {
+            return requiredMask.intersects(userMask);
+        }
+        for (int id = requiredMask.nextSetBit(0); id >= 0; id = requiredMask.nextSetBit(id + 1)) {
+            if (!userMask.get(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String describeRoles(Object roleValue) {
+        if (roleValue instanceof Object[]) {
+            return String.join(", ", Arrays.stream((Object[]) roleValue).map(String::valueOf).toArray(String[]::new));
+        }
+        if (roleValue instanceof Collection<?>) {
+            StringBuilder sb = new StringBuilder();
+            for (Object role : (Collection<?>) roleValue) {
+                if (sb.length() > 0) {
+                    sb.append(", ");
+                }
+                sb.append(role);
+            }
+            return sb.toString();
+        }
+        return String.valueOf(roleValue);
+    }
+
+    @Override
+    public String toString() {
+        if (this == NONE) {
+            return "public";
+        }
+        return (authenticationRequired ? "@Authorized " : "") +
+               (roles.isEmpty() ? "" : "@Role" + roles + (allRequired ? " (ALL)" : ""));
+    }
+
+    /**
+     * Recherche une annotation sur une méthode par son nom canonique.
+     * Cette méthode évite les problèmes de classloader en comparant les noms au lieu des classes.
+     */
+    private static Annotation findAnnotationByName(Method method, String annotationClassName) {
+        for (Annotation annotation : method.getAnnotations()) {
+            if (annotation.annotationType().getName().equals(annotationClassName)) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Récupère la valeur de l'annotation @Role par réflexion.
+     */
+    private static String getRoleValue(Annotation roleAnnotation) {
+        try {
+            Method valueMethod = roleAnnotation.annotationType().getMethod("value");
+            return (String) valueMethod.invoke(roleAnnotation);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Récupère le mode de correspondance de @Role (ANY ou ALL) par réflexion.
+     */
+    private static String getMatchValue(Annotation roleAnnotation) {
+        try {
+            Method matchMethod = roleAnnotation.annotationType().getMethod("match");
+            Object match = matchMethod.invoke(roleAnnotation);
+            return match instanceof Enum<?> ? ((Enum<?>) match).name() : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package itu.framework.security;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Index dense des rôles : chaque nom de rôle cité par un @Role reçoit un numéro (0, 1, 2...),
+ * ce qui permet de représenter un ensemble de rôles par un BitSet.
+ *
+ * Construit une fois au scan (voir ControllerScanner.indexRoles) et publié dans
+ * FrameworkRuntime. Les rôles d'un utilisateur qui ne figurent dans aucun @Role n'ont pas
+ * de numéro : ils ne peuvent de toute façon ouvrir aucune route. Les numéros dépendent des
+ * rôles cités et changent quand un rechargement en ajoute ou en retire.
+ */
+public final class RoleIndex {
+
+    private final Map<String, Integer> ids;
+    private final String[] names;
+
+    private RoleIndex(Collection<String> roleNames) {
+        // Ordre trié : mêmes numéros d'un démarrage à l'autre pour les mêmes contrôleurs
+        Set<String> sorted = new TreeSet<>(roleNames);
+        this.ids = new HashMap<>();
+        this.names = new String[sorted.size()];
+        int id = 0;
+        for (String name : sorted) {
+            String interned = name.intern();
+            ids.put(interned, id);
+            names[id] = interned;
+            id++;
+        }
+    }
+
+    public static RoleIndex of(Collection<String> roleNames) {
+        return new RoleIndex(roleNames);
+    }
+
+    /**
+     * @return le numéro du rôle, ou -1 s'il n'est cité par aucun @Role
+     */
+    public int idOf(String role) {
+        Integer id = ids.get(role);
+        return id != null ? id : -1;
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    public Set<String> getRoleNames() {
+        return Collections.unmodifiableSet(ids.keySet());
+    }
+
+    /**
+     * Masque d'un ensemble de rôles (les rôles inconnus de l'index sont ignorés).
+     * Ce masque n'est valable que pour cet index : en session, stocker les noms (voir RoleSet).
+     */
+    public BitSet maskOf(Iterable<?> roles) {
+        BitSet mask = new BitSet(names.length);
+        for (Object role : roles) {
+            if (role != null) {
+                int id = idOf(role.toString().trim());
+                if (id >= 0) {
+                    mask.set(id);
+                }
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Noms des rôles d'un masque, pour les messages.
+     */
+    public String describe(BitSet mask) {
+        StringBuilder sb = new StringBuilder();
+        for (int id = mask.nextSetBit(0); id >= 0 && id < names.length; id = mask.nextSetBit(id + 1)) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(names[id]);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,74 @@
+package itu.framework.security;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Rôles d'un utilisateur à placer dans l'attribut de session de rôle, immuables.
+ *
+ * Ce sont les noms qui sont conservés (et sérialisés avec la session) : le masque de bits
+ * n'est qu'un cache lié au RoleIndex qui l'a calculé. Après un rechargement ou un redéploiement,
+ * les numéros de rôles peuvent changer ; le masque est alors recalculé depuis les noms au lieu
+ * de désigner d'autres rôles.
+ */
+public final class RoleSet implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final Set<String> names;
+    // Dernier masque calculé, avec l'index qui l'a produit (non sérialisé)
+    private transient volatile CachedMask cached;
+
+    private RoleSet(Set<String> names) {
+        this.names = names;
+    }
+
+    public static RoleSet of(String... roles) {
+        return of(Arrays.asList(roles));
+    }
+
+    public static RoleSet of(Collection<String> roles) {
+        Set<String> names = new LinkedHashSet<>();
+        for (String role : roles) {
+            if (role != null && !role.trim().isEmpty()) {
+                names.add(role.trim());
+            }
+        }
+        return new RoleSet(Collections.unmodifiableSet(names));
+    }
+
+    public Set<String> getNames() {
+        return names;
+    }
+
+    /**
+     * @return le masque des rôles dans cet index, recalculé si l'index a changé
+     */
+    BitSet maskIn(RoleIndex index) {
+        CachedMask current = cached;
+        if (current == null || current.index != index) {
+            current = new CachedMask(index, index.maskOf(names));
+            cached = current;
+        }
+        return current.mask;
+    }
+
+    @Override
+    public String toString() {
+        return String.join(", ", names);
+    }
+
+    private static final class CachedMask {
+        final RoleIndex index;
+        final BitSet mask;
+
+        CachedMask(RoleIndex index, BitSet mask) {
+            this.index = index;
+            this.mask = mask;
+        }
+    }
+}
@@ -1,10 +1,49 @@
 package itu.framework.web;
 
+import jakarta.servlet.http.Part;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.Checksum;
+
+/**
+ * Fichier uploadé.
+ *
+ * Le contenu n'est pas forcément en mémoire : il peut rester dans la Part du conteneur
+ * (qui le place sur disque au-delà de fileSizeThreshold) ou dans un fichier temporaire.
+ * getInputStream(), size() et transferTo() n'allouent jamais le contenu complet ; getContent()
+ * le charge en mémoire au premier appel, puis le garde. La sérialisation JSON du framework
+ * (JsonSupport.GSON) appelle getContent() : un UploadFile renvoyé par une méthode @Json garde
+ * son contenu, qui est alors chargé en mémoire.
+ */
 public class UploadFile {
     private String filename;
     private String extension;
     private String mimeType;
     private byte[] content;
+    // Sources non chargées en mémoire (exclues de la sérialisation JSON)
+    private transient Part part;
+    private transient Path file;
+    // false une fois le fichier temporaire déplacé vers sa destination : delete() ne le supprime plus
+    private transient boolean temporaryFile;
+    private transient long size = -1;
+
+    private static final int TRANSFER_BUFFER_SIZE = 64 * 1024;
+    private static final long TRANSFER_CHUNK = 8L * 1024 * 1024;
 
     public UploadFile() {
     }
@@ -16,6 +55,63 @@ public class UploadFile {
         this.content = content;
     }
 
+    /**
+     * Fichier adossé à une Part du conteneur : rien n'est copié tant que le contenu n'est pas lu.
+     */
+    public UploadFile(String filename, String extension, String mimeType, Part part) {
+        this.filename = filename;
+        this.extension = extension;
+        this.mimeType = mimeType;
+        this.part = part;
+        this.size = part.getSize();
+    }
+
+    /**
+     * Fichier adossé à un fichier temporaire, supprimé par delete().
+     */
+    public UploadFile(String filename, String extension, String mimeType, Path file, long size) {
+        this.filename = filename;
+        this.extension = extension;
+        this.mimeType = mimeType;
+        this.file = file;
+        this.size = size;
+        this.temporaryFile = true;
+    }
+
+    /**
+     * Lit un flux jusqu'à sa fin : en mémoire jusqu'à memoryThreshold octets, au-delà dans un
+     * fichier temporaire. Le flux n'est pas fermé.
+     */
+    public static UploadFile fromStream(String filename, String extension, String mimeType,
+                                        InputStream in, int memoryThreshold) throws IOException {
+        byte[] buffer = new byte[Math.min(Math.max(memoryThreshold, 0) + 1, 8192)];
+        int length = 0;
+        int read;
+        while ((read = in.read(buffer, length, buffer.length - length)) > 0) {
+            length += read;
+            if (length > memoryThreshold) {
+                return spoolToFile(filename, extension, mimeType, buffer, length, in);
+            }
+            if (length == buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.min(buffer.length * 2, memoryThreshold + 1));
+            }
+        }
+        return new UploadFile(filename, extension, mimeType, Arrays.copyOf(buffer, length));
+    }
+
+    private static UploadFile spoolToFile(String filename, String extension, String mimeType,
+                                          byte[] head, int headLength, InputStream rest) throws IOException {
+        Path temp = Files.createTempFile("upload-", ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            out.write(head, 0, headLength);
+            long size = headLength + rest.transferTo(out);
+            return new UploadFile(filename, extension, mimeType, temp, size);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
     public String getFilename() {
         return filename;
     }
@@ -40,11 +136,216 @@ public class UploadFile {
         this.mimeType = mimeType;
     }
 
+    /**
+     * Contenu complet en mémoire, chargé au premier appel.
+     * Pour un gros fichier, préférer getInputStream().
+     */
     public byte[] getContent() {
+        if (content == null && (part != null || file != null)) {
+            try (InputStream in = openSource()) {
+                content = in.readAllBytes();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Lecture du fichier uploadé " + filename + " impossible", e);
+            }
+        }
         return content;
     }
 
     public void setContent(byte[] content) {
         this.content = content;
+        this.part = null;
+        this.file = null;
+        this.temporaryFile = false;
+        this.size = -1;
+    }
+
+    /**
+     * Flux sur le contenu, sans le charger en mémoire. Chaque appel ouvre un nouveau flux.
+     */
+    public InputStream getInputStream() throws IOException {
+        if (content != null) {
+            return new ByteArrayInputStream(content);
+        }
+        if (part != null || file != null) {
+            return openSource();
+        }
+        return InputStream.nullInputStream();
+    }
+
+    /**
+     * @return la taille du contenu en octets
+     */
+    public long size() {
+        if (content != null) {
+            return content.length;
+        }
+        return Math.max(size, 0);
+    }
+
+    /**
+     * @return true si le contenu est déjà en mémoire
+     */
+    public boolean isInMemory() {
+        return content != null || (part == null && file == null);
+    }
+
+    /**
+     * Enregistre le contenu dans target (remplacé s'il existe).
+     * @see #transferTo(Path, Checksum)
+     */
+    public long transferTo(Path target) throws IOException {
+        return transferTo(target, null);
+    }
+
+    /**
+     * Enregistre le contenu dans target (remplacé s'il existe), sans passer par le tas :
+     * un fichier temporaire est simplement déplacé (renommé sur le même système de fichiers),
+     * une Part est confiée au conteneur par Part.write (qui déplace son propre fichier quand il
+     * en a un). Dans les deux cas, l'UploadFile désigne ensuite target.
+     * @param checksum Somme de contrôle mise à jour pendant la copie (null : aucune). Si elle est
+     *                 fournie, un fichier temporaire est copié par blocs plutôt que déplacé
+     * @return le nombre d'octets écrits
+     */
+    public long transferTo(Path target, Checksum checksum) throws IOException {
+        if (content == null && file != null && temporaryFile && checksum == null) {
+            Files.move(file, target, StandardCopyOption.REPLACE_EXISTING);
+            file = target;
+            temporaryFile = false;
+            return size();
+        }
+        if (content == null && part != null && checksum == null) {
+            // Servlet 6 : un chemin absolu est utilisé tel quel par Part.write
+            Path absolute = target.toAbsolutePath();
+            Files.deleteIfExists(absolute);
+            part.write(absolute.toString());
+            part = null;
+            file = absolute;
+            temporaryFile = false;
+            size = Files.size(absolute);
+            return size;
+        }
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            return transferTo(out, checksum);
+        }
+    }
+
+    /**
+     * Écrit le contenu dans un canal (non fermé).
+     * @see #transferTo(WritableByteChannel, Checksum)
+     */
+    public long transferTo(WritableByteChannel target) throws IOException {
+        return transferTo(target, null);
+    }
+
+    /**
+     * Écrit le contenu dans un canal bloquant (non fermé). Sans somme de contrôle, un fichier est
+     * copié par FileChannel.transferTo/transferFrom (copie noyau quand l'OS le permet). Le flux
+     * d'une Part n'est pas un fichier accessible : il est copié par un tampon.
+     * @param checksum Somme de contrôle mise à jour pendant la copie (null : aucune)
+     * @return le nombre d'octets écrits
+     * @throws IllegalArgumentException si le canal est en mode non bloquant
+     */
+    public long transferTo(WritableByteChannel target, Checksum checksum) throws IOException {
+        if (target instanceof SelectableChannel && !((SelectableChannel) target).isBlocking()) {
+            throw new IllegalArgumentException("Canal non bloquant non supporté pour l'écriture de " + filename);
+        }
+        if (content != null || (part == null && file == null)) {
+            byte[] bytes = content != null ? content : new byte[0];
+            if (checksum != null) {
+                checksum.update(bytes, 0, bytes.length);
+            }
+            writeFully(target, ByteBuffer.wrap(bytes));
+            return bytes.length;
+        }
+
+        if (file != null) {
+            try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+                if (checksum == null) {
+                    long total = in.size();
+                    long position = 0;
+                    while (position < total) {
+                        long transferred = in.transferTo(position, total - position, target);
+                        if (transferred <= 0) {
+                            // Fichier raccourci pendant la copie : rien de plus à lire
+                            break;
+                        }
+                        position += transferred;
+                    }
+                    return position;
+                }
+                return copy(in, target, checksum);
+            }
+        }
+
+        try (InputStream stream = part.getInputStream();
+             ReadableByteChannel in = Channels.newChannel(stream)) {
+            if (checksum == null && target instanceof FileChannel) {
+                FileChannel out = (FileChannel) target;
+                long start = out.position();
+                long position = start;
+                long transferred;
+                while ((transferred = out.transferFrom(in, position, TRANSFER_CHUNK)) > 0) {
+                    position += transferred;
+                }
+                out.position(position);
+                return position - start;
+            }
+            return copy(in, target, checksum);
+        }
+    }
+
+    private static long copy(ReadableByteChannel in, WritableByteChannel out, Checksum checksum) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(TRANSFER_BUFFER_SIZE);
+        long total = 0;
+        while (in.read(buffer) >= 0) {
+            buffer.flip();
+            if (checksum != null) {
+                // update(ByteBuffer) consomme le tampon : on le relit ensuite pour l'écriture
+                int start = buffer.position();
+                checksum.update(buffer);
+                buffer.position(start);
+            }
+            total += writeFully(out, buffer);
+            buffer.clear();
+        }
+        return total;
+    }
+
+    /**
+     * Écrit tout le tampon. Un canal bloquant qui n'accepte plus rien est une erreur, plutôt
+     * qu'une boucle sans fin.
+     */
+    private static int writeFully(WritableByteChannel out, ByteBuffer buffer) throws IOException {
+        int total = 0;
+        while (buffer.hasRemaining()) {
+            int written = out.write(buffer);
+            if (written <= 0) {
+                throw new IOException("Le canal de destination n'accepte plus d'octets");
+            }
+            total += written;
+        }
+        return total;
+    }
+
+    /**
+     * Libère le stockage temporaire (fichier temporaire ou Part du conteneur).
+     * Un fichier déjà déplacé par transferTo(Path) n'est pas supprimé.
+     */
+    public void delete() throws IOException {
+        if (file != null) {
+            if (temporaryFile) {
+                Files.deleteIfExists(file);
+            }
+            file = null;
+        }
+        if (part != null) {
+            part.delete();
+            part = null;
+        }
+    }
+
+    private InputStream openSource() throws IOException {
+        return part != null ? part.getInputStream() : Files.newInputStream(file);
     }
 }
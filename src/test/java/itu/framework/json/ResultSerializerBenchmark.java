@@ -0,0 +1,166 @@
+package itu.framework.json;
+
+import itu.framework.web.JsonResponse;
+
+import com.google.gson.reflect.TypeToken;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Mesure de la sérialisation d'un gros résultat @Json : chaîne complète puis écriture
+ * (ancien chemin, gson.toJson puis PrintWriter.print) contre ResultSerializer, qui écrit en flux
+ * sur l'OutputStream de la réponse.
+ *
+ * Pas un test unitaire (non exécuté par surefire). Lancement après mvn test-compile :
+ * <pre>
+ * java -Xmx256m -cp target/classes:target/test-classes:gson.jar itu.framework.json.ResultSerializerBenchmark [string|flux]
+ * </pre>
+ * Pour chaque taille (environ 5, 10 et 20 Mo de JSON) : octets alloués par le thread
+ * (com.sun.management.ThreadMXBean) et durée médiane. La sortie va dans un flux qui ne garde
+ * qu'un CRC, pour vérifier que les deux chemins produisent les mêmes octets sans compter le
+ * tampon du conteneur. Avec un seul chemin en argument, l'autre n'est pas exécuté : en baissant
+ * -Xmx, on trouve le tas minimal de chacun.
+ */
+public final class ResultSerializerBenchmark {
+
+    private static final int RUNS = 7;
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    public static void main(String[] args) throws IOException {
+        String only = args.length > 0 ? args[0] : null;
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Type listType = new TypeToken<List<Item>>() { }.getType();
+        ResultSerializer serializer = ResultSerializer.forType(JsonSupport.GSON, List.class, listType);
+
+        System.out.printf("%-10s %-10s %12s %14s %12s%n", "éléments", "chemin", "JSON (Mo)", "alloué (Mo)", "durée (ms)");
+        for (int size : new int[]{40_000, 80_000, 160_000}) {
+            List<Item> data = items(size);
+
+            Measure string = null;
+            Measure stream = null;
+            if (!"flux".equals(only)) {
+                string = measure(threads, () -> {
+                    CountingOutputStream sink = new CountingOutputStream();
+                    PrintWriter out = new PrintWriter(new OutputStreamWriter(sink, StandardCharsets.UTF_8));
+                    String json = JsonSupport.GSON.toJson(JsonResponse.success(200, "Résultat retourné", data));
+                    out.print(json);
+                    out.flush();
+                    return sink;
+                });
+                print(size, "String", string);
+            }
+            if (!"string".equals(only)) {
+                stream = measure(threads, () -> {
+                    CountingOutputStream sink = new CountingOutputStream();
+                    serializer.write(sink, data, BUFFER_SIZE);
+                    return sink;
+                });
+                print(size, "flux", stream);
+            }
+            if (string != null && stream != null && (string.crc != stream.crc || string.bytes != stream.bytes)) {
+                throw new IllegalStateException("Les deux chemins ne produisent pas le même JSON");
+            }
+        }
+    }
+
+    private static void print(int size, String path, Measure measure) {
+        System.out.printf("%-10d %-10s %12.1f %14.1f %12.1f%n", size, path,
+                measure.bytes / 1e6, measure.allocated / 1e6, measure.medianNanos / 1e6);
+    }
+
+    private static Measure measure(com.sun.management.ThreadMXBean threads, Run run) throws IOException {
+        long threadId = Thread.currentThread().getId();
+        // Préchauffage
+        for (int i = 0; i < 3; i++) {
+            run.run();
+        }
+        long[] durations = new long[RUNS];
+        long allocated = Long.MAX_VALUE;
+        CountingOutputStream sink = null;
+        for (int i = 0; i < RUNS; i++) {
+            long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            sink = run.run();
+            durations[i] = System.nanoTime() - start;
+            allocated = Math.min(allocated, threads.getThreadAllocatedBytes(threadId) - allocatedBefore);
+        }
+        java.util.Arrays.sort(durations);
+        return new Measure(sink.count, sink.crc.getValue(), allocated, durations[RUNS / 2]);
+    }
+
+    private static List<Item> items(int size) {
+        List<Item> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(new Item(i, "Employé n°" + i, "employe" + i + "@exemple.mg",
+                               "Département " + (i % 40), 1500.25 + i, i % 3 != 0));
+        }
+        return items;
+    }
+
+    @FunctionalInterface
+    private interface Run {
+        CountingOutputStream run() throws IOException;
+    }
+
+    private static final class Measure {
+        final long bytes;
+        final long crc;
+        final long allocated;
+        final long medianNanos;
+
+        Measure(long bytes, long crc, long allocated, long medianNanos) {
+            this.bytes = bytes;
+            this.crc = crc;
+            this.allocated = allocated;
+            this.medianNanos = medianNanos;
+        }
+    }
+
+    /**
+     * Flux de sortie qui ne garde que le nombre d'octets et leur CRC.
+     */
+    private static final class CountingOutputStream extends OutputStream {
+        final CRC32 crc = new CRC32();
+        long count;
+
+        @Override
+        public void write(int b) {
+            crc.update(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            crc.update(b, off, len);
+            count += len;
+        }
+    }
+
+    static final class Item {
+        final int id;
+        final String nom;
+        final String email;
+        final String departement;
+        final double salaire;
+        final boolean actif;
+
+        Item(int id, String nom, String email, String departement, double salaire, boolean actif) {
+            this.id = id;
+            this.nom = nom;
+            this.email = email;
+            this.departement = departement;
+            this.salaire = salaire;
+            this.actif = actif;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package itu.framework.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    // Nombre de classes : dernière classe + 1
+    private static final int BUCKET_COUNT = LatencyHistogram.bucketOf(Long.MAX_VALUE) + 1;
+
+    @Test
+    void smallValuesHaveOneBucketEach() {
+        for (int micros = 0; micros < 8; micros++) {
+            assertEquals(micros, LatencyHistogram.bucketOf(micros));
+            assertEquals(micros, LatencyHistogram.upperBoundOf(micros));
+        }
+        assertEquals(8, LatencyHistogram.bucketOf(8));
+    }
+
+    @Test
+    void bucketsAreContiguousAndBoundsRoundTrip() {
+        long previousUpper = -1;
+        for (int bucket = 0; bucket < BUCKET_COUNT - 1; bucket++) {
+            long upper = LatencyHistogram.upperBoundOf(bucket);
+            long lower = previousUpper + 1;
+            // Les deux bornes de la classe y retombent, la valeur suivante passe à la classe d'après
+            assertEquals(bucket, LatencyHistogram.bucketOf(lower), "borne basse de la classe " + bucket);
+            assertEquals(bucket, LatencyHistogram.bucketOf(upper), "borne haute de la classe " + bucket);
+            assertEquals(bucket + 1, LatencyHistogram.bucketOf(upper + 1));
+            // Erreur relative d'au plus 12,5 % au-delà des classes unitaires
+            assertTrue(upper - lower <= lower / 8, "largeur de la classe " + bucket);
+            previousUpper = upper;
+        }
+    }
+
+    @Test
+    void hugeValuesFallInTheLastBucket() {
+        assertEquals(BUCKET_COUNT - 1, LatencyHistogram.bucketOf(1L << 36));
+        assertEquals(BUCKET_COUNT - 1, LatencyHistogram.bucketOf(Long.MAX_VALUE));
+        // La dernière classe commence à 15 × 2^32 µs et n'a pas de borne haute
+        assertEquals(BUCKET_COUNT - 1, LatencyHistogram.bucketOf((1L << 36) - 1));
+        assertEquals(BUCKET_COUNT - 1, LatencyHistogram.bucketOf(15L << 32));
+        assertEquals(BUCKET_COUNT - 2, LatencyHistogram.bucketOf((15L << 32) - 1));
+    }
+
+    @Test
+    void negativeAndSubMicrosecondDurationsCountAsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(999);
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(2, snapshot.getCount());
+        assertEquals(0, snapshot.quantileMicros(1.0));
+    }
+
+    @Test
+    void emptyHistogramQuantileIsZero() {
+        assertEquals(0, new LatencyHistogram().snapshot().quantileMicros(0.99));
+    }
+
+    @Test
+    void quantilesReturnTheUpperBoundOfTheirBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        // 1 à 1000 µs, une fois chacune
+        for (long micros = 1; micros <= 1000; micros++) {
+            histogram.record(micros * 1000);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(1000, snapshot.getCount());
+        assertEquals(1, snapshot.quantileMicros(0));
+        assertEquals(1, snapshot.quantileMicros(0.001));
+        assertQuantile(500, snapshot.quantileMicros(0.5));
+        assertQuantile(900, snapshot.quantileMicros(0.9));
+        assertQuantile(990, snapshot.quantileMicros(0.99));
+        assertQuantile(1000, snapshot.quantileMicros(1.0));
+        assertEquals(LatencyHistogram.upperBoundOf(LatencyHistogram.bucketOf(1000)), snapshot.quantileMicros(1.0));
+    }
+
+    @Test
+    void quantileOfASkewedDistribution() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.record(3_000);
+        }
+        histogram.record(2_000_000_000L);
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(3, snapshot.quantileMicros(0.99));
+        assertQuantile(2_000_000, snapshot.quantileMicros(0.999));
+    }
+
+    /**
+     * La borne rendue est au moins la valeur exacte et au plus 12,5 % au-dessus.
+     */
+    private static void assertQuantile(long exactMicros, long actual) {
+        assertTrue(actual >= exactMicros && actual <= exactMicros + exactMicros / 8,
+                "quantile " + actual + " hors de [" + exactMicros + ", " + (exactMicros + exactMicros / 8) + "]");
+    }
+}
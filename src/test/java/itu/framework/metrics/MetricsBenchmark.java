@@ -0,0 +1,108 @@
+package itu.framework.metrics;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+/**
+ * Mesure du coût de RouteMetrics.record et LatencyHistogram.record sous contention :
+ * N threads enregistrent sur la même instance (une route très sollicitée).
+ *
+ * Pas un test unitaire (non exécuté par surefire). Lancement après mvn test-compile :
+ * <pre>
+ * java -cp target/classes:target/test-classes itu.framework.metrics.MetricsBenchmark [millisParMesure]
+ * </pre>
+ * Deux distributions de durées : toutes dans la même classe (pire cas pour l'histogramme,
+ * un seul compteur atomique disputé) et réparties entre 50 µs et 50 ms. Un AtomicLong partagé
+ * sert de référence pour le coût d'un compteur unique disputé.
+ */
+public final class MetricsBenchmark {
+
+    private static final int SAMPLES = 1024;
+
+    public static void main(String[] args) throws InterruptedException {
+        long millis = args.length > 0 ? Long.parseLong(args[0]) : 1000;
+        int processors = Runtime.getRuntime().availableProcessors();
+        long[] sameBucket = new long[SAMPLES];
+        long[] spread = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            sameBucket[i] = 120_000;
+            spread[i] = ThreadLocalRandom.current().nextLong(50_000, 50_000_000);
+        }
+
+        System.out.println("processeurs: " + processors + ", " + millis + " ms par mesure");
+        System.out.printf("%-36s %8s %14s %10s%n", "mesure", "threads", "ops/s", "ns/op");
+        for (int threads = 1; threads <= Math.max(8, processors); threads *= 2) {
+            AtomicLong counter = new AtomicLong();
+            run("AtomicLong.incrementAndGet", threads, millis, sameBucket, nanos -> counter.incrementAndGet());
+
+            LatencyHistogram histogram = new LatencyHistogram();
+            run("LatencyHistogram.record (1 classe)", threads, millis, sameBucket, histogram::record);
+            LatencyHistogram spreadHistogram = new LatencyHistogram();
+            run("LatencyHistogram.record (réparti)", threads, millis, spread, spreadHistogram::record);
+
+            RouteMetrics metrics = new RouteMetrics();
+            run("RouteMetrics.record (1 classe)", threads, millis, sameBucket, nanos -> metrics.record(nanos, false));
+            RouteMetrics spreadMetrics = new RouteMetrics();
+            run("RouteMetrics.record (réparti)", threads, millis, spread, nanos -> spreadMetrics.record(nanos, false));
+        }
+    }
+
+    private static void run(String name, int threads, long millis, long[] samples, LongConsumer recorder)
+            throws InterruptedException {
+        // Préchauffage pour que la boucle soit compilée avant la mesure
+        measure(threads, Math.max(millis / 4, 50), samples, recorder);
+        long[] result = measure(threads, millis, samples, recorder);
+        long ops = result[0];
+        long elapsedNanos = result[1];
+        double opsPerSecond = ops * 1e9 / elapsedNanos;
+        // Temps par opération vu d'un thread
+        double nanosPerOp = (double) elapsedNanos * threads / ops;
+        System.out.printf("%-36s %8d %,14.0f %10.1f%n", name, threads, opsPerSecond, nanosPerOp);
+    }
+
+    /**
+     * @return {opérations, durée en nanosecondes}
+     */
+    private static long[] measure(int threads, long millis, long[] samples, LongConsumer recorder)
+            throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        // Une case sur 16 par thread, pour ne pas partager de ligne de cache
+        long[] counts = new long[threads * 16];
+        Thread[] workers = new Thread[threads];
+        long durationNanos = millis * 1_000_000L;
+        for (int t = 0; t < threads; t++) {
+            int slot = t * 16;
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long deadline = System.nanoTime() + durationNanos;
+                long ops = 0;
+                while (System.nanoTime() < deadline) {
+                    // Lots de SAMPLES pour ne pas mesurer System.nanoTime
+                    for (int i = 0; i < SAMPLES; i++) {
+                        recorder.accept(samples[(slot + i) & (SAMPLES - 1)]);
+                    }
+                    ops += SAMPLES;
+                }
+                counts[slot] = ops;
+            });
+            workers[t].start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return new long[]{total, elapsed};
+    }
+}
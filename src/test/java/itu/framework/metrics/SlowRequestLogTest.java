@@ -0,0 +1,76 @@
+package itu.framework.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlowRequestLogTest {
+
+    @Test
+    void ringKeepsTheMostRecentEntries() {
+        SlowRequestLog log = new SlowRequestLog(3);
+        for (int i = 0; i < 5; i++) {
+            log.record(entry("/r" + i, SlowRequestLog.ThreadState.current().untilNow()));
+        }
+
+        List<SlowRequestLog.Entry> entries = log.snapshot();
+        assertEquals(5, log.getTotalCount());
+        assertEquals(3, entries.size());
+        assertEquals("/r4", entries.get(0).getRoute());
+        assertEquals("/r2", entries.get(2).getRoute());
+    }
+
+    @Test
+    void threadStateCountsWaitsDuringTheRequest() throws InterruptedException {
+        SlowRequestLog.ThreadState start = SlowRequestLog.ThreadState.current();
+        Thread.sleep(5);
+        Thread.sleep(5);
+        SlowRequestLog.ThreadState activity = start.untilNow();
+
+        assertEquals(2, activity.getWaitedCount());
+        assertEquals(0, activity.getBlockedCount());
+    }
+
+    @Test
+    void threadStateCountsBlockingOnAMonitor() throws InterruptedException {
+        // Mesure de contention activée par le journal
+        new SlowRequestLog(1);
+        Object lock = new Object();
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> {
+            synchronized (lock) {
+                held.countDown();
+                try {
+                    release.await();
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        holder.start();
+        held.await();
+
+        SlowRequestLog.ThreadState start = SlowRequestLog.ThreadState.current();
+        release.countDown();
+        synchronized (lock) {
+            // Verrou obtenu après l'attente
+        }
+        SlowRequestLog.ThreadState activity = start.untilNow();
+        holder.join();
+
+        assertEquals(1, activity.getBlockedCount());
+        assertTrue(activity.getBlockedMillis() != 0, "durée de blocage mesurée (ou -1 si non supportée)");
+    }
+
+    private static SlowRequestLog.Entry entry(String route, SlowRequestLog.ThreadState threadState) {
+        return new SlowRequestLog.Entry(System.currentTimeMillis(), "GET", route, "Test.route", 2000, 1000,
+                                        null, Collections.emptyList(), "main", threadState, false);
+    }
+}
@@ -0,0 +1,190 @@
+package itu.framework.multipart;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MultipartParserTest {
+
+    private static final String BOUNDARY = "----limite42";
+    private static final MultipartLimits NO_LIMITS = new MultipartLimits(0, 0, 0, new String[0], 0);
+
+    @Test
+    void boundarySplitAcrossReads() throws IOException {
+        // Contenu plus grand que le tampon, avec des débuts de délimiteur qui n'en sont pas
+        StringBuilder content = new StringBuilder();
+        while (content.length() < 40_000) {
+            content.append("ligne\r\n--limite\r\n--").append(content.length()).append('\n');
+        }
+        byte[] body = body(field("titre", "Rapport"), file("doc", "a.txt", "text/plain", content.toString()));
+
+        // Un octet par lecture : chaque délimiteur est coupé entre deux lectures
+        List<String> values = readAll(new OneByteInputStream(body), NO_LIMITS);
+
+        assertEquals(List.of("titre=Rapport", "doc=" + content), values);
+    }
+
+    @Test
+    void preambleAndEpilogueAreIgnored() throws IOException {
+        byte[] body = ("préambule\r\n" + new String(body(field("a", "1")), StandardCharsets.ISO_8859_1) + "\r\népilogue")
+                .getBytes(StandardCharsets.ISO_8859_1);
+
+        assertEquals(List.of("a=1"), readAll(new ByteArrayInputStream(body), NO_LIMITS));
+    }
+
+    @Test
+    void missingFinalBoundaryIsMalformed() {
+        String truncated = "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"a\"\r\n\r\n"
+                + "valeur sans fin";
+        MultipartException e = assertThrows(MultipartException.class,
+                () -> readAll(new ByteArrayInputStream(truncated.getBytes(StandardCharsets.ISO_8859_1)), NO_LIMITS));
+        assertEquals(400, e.getStatus());
+
+        // Dernier délimiteur présent mais sans "--" final ni part
+        String noClose = "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"a\"\r\n\r\n1\r\n--" + BOUNDARY;
+        e = assertThrows(MultipartException.class,
+                () -> readAll(new ByteArrayInputStream(noClose.getBytes(StandardCharsets.ISO_8859_1)), NO_LIMITS));
+        assertEquals(400, e.getStatus());
+    }
+
+    @Test
+    void noBoundaryAtAllIsMalformed() {
+        MultipartException e = assertThrows(MultipartException.class,
+                () -> readAll(new ByteArrayInputStream("pas de multipart".getBytes(StandardCharsets.ISO_8859_1)), NO_LIMITS));
+        assertEquals(400, e.getStatus());
+    }
+
+    @Test
+    void maxPartsCutoff() throws IOException {
+        MultipartLimits twoParts = new MultipartLimits(2, 0, 0, new String[0], 0);
+        byte[] two = body(field("a", "1"), field("b", "2"));
+        byte[] three = body(field("a", "1"), field("b", "2"), field("c", "3"));
+
+        assertEquals(2, readAll(new ByteArrayInputStream(two), twoParts).size());
+        MultipartException e = assertThrows(MultipartException.class,
+                () -> readAll(new ByteArrayInputStream(three), twoParts));
+        assertEquals(413, e.getStatus());
+    }
+
+    @Test
+    void maxPartSizeCutoff() throws IOException {
+        MultipartLimits tenBytes = new MultipartLimits(0, 10, 0, new String[0], 0);
+
+        assertEquals(List.of("a=0123456789"), readAll(new ByteArrayInputStream(body(field("a", "0123456789"))), tenBytes));
+        MultipartException e = assertThrows(MultipartException.class,
+                () -> readAll(new OneByteInputStream(body(field("a", "0123456789X"))), tenBytes));
+        assertEquals(413, e.getStatus());
+    }
+
+    @Test
+    void maxRequestSizeCutoff() {
+        MultipartLimits small = new MultipartLimits(0, 0, 64, new String[0], 0);
+        MultipartException e = assertThrows(MultipartException.class,
+                () -> readAll(new ByteArrayInputStream(body(field("a", "x".repeat(200)))), small));
+        assertEquals(413, e.getStatus());
+    }
+
+    @Test
+    void disallowedTypeIsRejected() throws IOException {
+        MultipartLimits images = new MultipartLimits(0, 0, 0, new String[]{"image/*", "application/pdf"}, 0);
+
+        assertEquals(List.of("photo=png"),
+                readAll(new ByteArrayInputStream(body(file("photo", "a.png", "image/png", "png"))), images));
+        // Champ texte et input fichier vide : pas de contrôle de type
+        assertEquals(List.of("a=1", "vide="),
+                readAll(new ByteArrayInputStream(body(field("a", "1"), file("vide", "", "application/octet-stream", ""))), images));
+        MultipartException e = assertThrows(MultipartException.class,
+                () -> readAll(new ByteArrayInputStream(body(file("doc", "a.exe", "application/x-msdownload", "MZ"))), images));
+        assertEquals(415, e.getStatus());
+    }
+
+    @Test
+    void boundaryOfContentType() {
+        assertEquals("abc", MultipartParser.boundaryOf("multipart/form-data; boundary=abc"));
+        assertEquals("a b", MultipartParser.boundaryOf("multipart/form-data; boundary=\"a b\"; charset=UTF-8"));
+        assertEquals("abc", MultipartParser.boundaryOf("multipart/form-data; BOUNDARY=abc; x=y"));
+        assertNull(MultipartParser.boundaryOf("multipart/form-data"));
+        assertNull(MultipartParser.boundaryOf("multipart/form-data; boundary="));
+        assertNull(MultipartParser.boundaryOf("multipart/form-data; boundary=" + "x".repeat(71)));
+        assertTrue(MultipartParser.isMultipart("Multipart/Form-Data; boundary=abc"));
+    }
+
+    @Test
+    void unreadPartIsSkipped() throws IOException {
+        MultipartParser parser = new MultipartParser(
+                new OneByteInputStream(body(field("a", "x".repeat(50_000)), field("b", "2"))),
+                BOUNDARY, NO_LIMITS, StandardCharsets.UTF_8);
+
+        assertEquals("a", parser.next().getName());
+        StreamPart second = parser.next();
+        assertEquals("b", second.getName());
+        assertArrayEquals("2".getBytes(StandardCharsets.UTF_8), second.getInputStream().readAllBytes());
+        assertNull(parser.next());
+        assertNull(parser.next());
+    }
+
+    /**
+     * @return "nom=contenu" pour chaque part, dans l'ordre
+     */
+    private static List<String> readAll(InputStream in, MultipartLimits limits) throws IOException {
+        MultipartParser parser = new MultipartParser(in, BOUNDARY, limits, StandardCharsets.UTF_8);
+        List<String> values = new ArrayList<>();
+        StreamPart part;
+        while ((part = parser.next()) != null) {
+            values.add(part.getName() + "=" + new String(part.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+        }
+        return values;
+    }
+
+    private static String field(String name, String value) {
+        return "Content-Disposition: form-data; name=\"" + name + "\"\r\n\r\n" + value;
+    }
+
+    private static String file(String name, String filename, String contentType, String content) {
+        return "Content-Disposition: form-data; name=\"" + name + "\"; filename=\"" + filename + "\"\r\n"
+                + "Content-Type: " + contentType + "\r\n\r\n" + content;
+    }
+
+    private static byte[] body(String... parts) {
+        StringBuilder body = new StringBuilder();
+        for (String part : parts) {
+            body.append("--").append(BOUNDARY).append("\r\n").append(part).append("\r\n");
+        }
+        body.append("--").append(BOUNDARY).append("--\r\n");
+        return body.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Flux qui ne rend qu'un octet par lecture.
+     */
+    private static final class OneByteInputStream extends InputStream {
+        private final ByteArrayInputStream in;
+
+        OneByteInputStream(byte[] bytes) {
+            this.in = new ByteArrayInputStream(bytes);
+        }
+
+        @Override
+        public int read() {
+            return in.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            return in.read(b, off, Math.min(len, 1));
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package itu.framework.multipart;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MultipartRequestTest {
+
+    private static final MultipartLimits LIMITS = new MultipartLimits(0, 0, 1024, new String[0], 0);
+
+    @Test
+    void unsupportedCharsetIsRejected() {
+        MultipartException e = assertThrows(MultipartException.class,
+                () -> MultipartRequest.parse(request("multipart/form-data; boundary=abc", "x-inconnu", 10), LIMITS));
+        assertEquals(415, e.getStatus());
+
+        e = assertThrows(MultipartException.class,
+                () -> MultipartRequest.parse(request("multipart/form-data; boundary=abc", "pas valide!", 10), LIMITS));
+        assertEquals(415, e.getStatus());
+    }
+
+    @Test
+    void missingBoundaryAndDeclaredLengthAreCheckedFirst() {
+        MultipartException e = assertThrows(MultipartException.class,
+                () -> MultipartRequest.parse(request("multipart/form-data", null, 10), LIMITS));
+        assertEquals(400, e.getStatus());
+
+        e = assertThrows(MultipartException.class,
+                () -> MultipartRequest.parse(request("multipart/form-data; boundary=abc", null, 4096), LIMITS));
+        assertEquals(413, e.getStatus());
+    }
+
+    /**
+     * Requête sans corps : ces refus ont lieu avant toute lecture.
+     */
+    private static HttpServletRequest request(String contentType, String encoding, long contentLength) {
+        return (HttpServletRequest) Proxy.newProxyInstance(
+                MultipartRequestTest.class.getClassLoader(),
+                new Class<?>[]{HttpServletRequest.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getContentType" -> contentType;
+                    case "getCharacterEncoding" -> encoding;
+                    case "getContentLengthLong" -> contentLength;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,141 @@
+package itu.framework.routing;
+
+import itu.framework.scan.ControllerScanner.MethodInfo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PathConstraintTest {
+
+    private static boolean matches(PathConstraint constraint, String value) {
+        // Segment au milieu d'un chemin : vérifie que seuls [start, end) sont lus
+        String path = "/x/" + value + "/y";
+        return constraint.matches(path, 3, 3 + value.length());
+    }
+
+    @Test
+    void parse() {
+        assertSame(PathConstraint.STRING, PathConstraint.parse(null));
+        assertSame(PathConstraint.STRING, PathConstraint.parse(""));
+        assertSame(PathConstraint.STRING, PathConstraint.parse("string"));
+        assertSame(PathConstraint.INT, PathConstraint.parse("int"));
+        assertSame(PathConstraint.LONG, PathConstraint.parse("long"));
+        assertSame(PathConstraint.UUID_CONSTRAINT, PathConstraint.parse("uuid"));
+        assertSame(PathConstraint.CATCH_ALL, PathConstraint.parse("*"));
+        assertThrows(IllegalArgumentException.class, () -> PathConstraint.parse("float"));
+        assertThrows(IllegalArgumentException.class, () -> PathConstraint.parse("INT"));
+    }
+
+    @Test
+    void intBoundsAndSign() {
+        PathConstraint c = PathConstraint.INT;
+        assertTrue(matches(c, "0"));
+        assertTrue(matches(c, "-7"));
+        assertTrue(matches(c, "007"));
+        assertTrue(matches(c, "2147483647"));
+        assertTrue(matches(c, "-2147483648"));
+        assertFalse(matches(c, "2147483648"));
+        assertFalse(matches(c, "-2147483649"));
+        assertFalse(matches(c, "99999999999"));
+        assertFalse(matches(c, "-"));
+        assertFalse(matches(c, "+5"));
+        assertFalse(matches(c, "--5"));
+        assertFalse(matches(c, "1a"));
+        assertFalse(matches(c, ""));
+    }
+
+    @Test
+    void longBoundsAndSign() {
+        PathConstraint c = PathConstraint.LONG;
+        assertTrue(matches(c, "2147483648"));
+        assertTrue(matches(c, "9223372036854775807"));
+        assertTrue(matches(c, "-9223372036854775808"));
+        assertFalse(matches(c, "9223372036854775808"));
+        assertFalse(matches(c, "-9223372036854775809"));
+        assertFalse(matches(c, "18446744073709551616"));
+        assertFalse(matches(c, "-"));
+        // Une valeur validée se convertit toujours sans exception
+        assertEquals(Long.MIN_VALUE, PathConstraint.convert("-9223372036854775808", long.class));
+    }
+
+    @Test
+    void uuidCaseAndLength() {
+        PathConstraint c = PathConstraint.UUID_CONSTRAINT;
+        assertTrue(matches(c, "123e4567-e89b-12d3-a456-426614174000"));
+        assertTrue(matches(c, "123E4567-E89B-12D3-A456-426614174000"));
+        assertFalse(matches(c, "123e4567-e89b-12d3-a456-42661417400"));
+        assertFalse(matches(c, "123e4567-e89b-12d3-a456-4266141740000"));
+        assertFalse(matches(c, "123e4567e89b-12d3-a456-4266141740000"));
+        assertFalse(matches(c, "123g4567-e89b-12d3-a456-426614174000"));
+        assertEquals(UUID.fromString("123e4567-e89b-12d3-a456-426614174000"),
+                     PathConstraint.convert("123E4567-E89B-12D3-A456-426614174000", UUID.class));
+    }
+
+    @Test
+    void charClassRanges() {
+        PathConstraint slug = PathConstraint.parse("[a-z0-9-]+");
+        assertTrue(matches(slug, "mon-article-2"));
+        assertFalse(matches(slug, "Mon-article"));
+        assertFalse(matches(slug, "a_b"));
+        assertFalse(matches(slug, ""));
+
+        PathConstraint negated = PathConstraint.parse("[^.]+");
+        assertTrue(matches(negated, "fichier"));
+        assertFalse(matches(negated, "fichier.txt"));
+
+        PathConstraint escaped = PathConstraint.parse("[a\\-z]+");
+        assertTrue(matches(escaped, "a-z"));
+        assertFalse(matches(escaped, "b"));
+
+        PathConstraint accents = PathConstraint.parse("[a-zà-ÿ]+");
+        assertTrue(matches(accents, "élève"));
+
+        assertThrows(IllegalArgumentException.class, () -> PathConstraint.parse("[z-a]+"));
+        assertThrows(IllegalArgumentException.class, () -> PathConstraint.parse("[]"));
+        assertThrows(IllegalArgumentException.class, () -> PathConstraint.parse("[a-z]*"));
+        assertThrows(IllegalArgumentException.class, () -> PathConstraint.parse("[a-z"));
+    }
+
+    @Test
+    void accepts() {
+        assertTrue(PathConstraint.INT.accepts(int.class));
+        assertTrue(PathConstraint.INT.accepts(Long.class));
+        assertFalse(PathConstraint.LONG.accepts(int.class));
+        assertTrue(PathConstraint.UUID_CONSTRAINT.accepts(UUID.class));
+        assertTrue(PathConstraint.CATCH_ALL.accepts(String.class));
+        assertFalse(PathConstraint.STRING.accepts(int.class));
+    }
+
+    @Test
+    void catchAllOnlyAsLastSegment() throws Exception {
+        MethodInfo fichiers = route("/fichiers/{chemin:*}");
+        RouteTrie trie = new RouteTrie.Builder("GET").add("/fichiers/{chemin:*}", fichiers).build();
+
+        RouteMatch match = trie.match("/fichiers/a/b/c.txt", 0);
+        assertSame(fichiers, match.getMethodInfo());
+        assertArrayEquals(new String[]{"a/b/c.txt"}, match.getPathValues());
+        assertNull(trie.match("/fichiers/", 0));
+
+        MethodInfo milieu = route("/fichiers/{chemin:*}/meta");
+        assertThrows(IllegalArgumentException.class,
+                     () -> new RouteTrie.Builder("GET").add("/fichiers/{chemin:*}/meta", milieu));
+    }
+
+    private static MethodInfo route(String url) throws NoSuchMethodException {
+        MethodInfo methodInfo = new MethodInfo(PathConstraintTest.class, Object.class.getMethod("toString"));
+        methodInfo.setUrlPattern(url);
+        methodInfo.setPathParamNames(List.of("chemin"));
+        methodInfo.setPathParamConstraints(List.of(PathConstraint.CATCH_ALL));
+        return methodInfo;
+    }
+}
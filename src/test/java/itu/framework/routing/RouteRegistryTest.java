@@ -0,0 +1,179 @@
+package itu.framework.routing;
+
+import itu.framework.scan.ControllerScanner.MethodInfo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RouteRegistryTest {
+
+    /**
+     * MethodInfo minimal : seules l'URL et les variables de chemin comptent pour la résolution.
+     */
+    private static MethodInfo route(String url) throws NoSuchMethodException {
+        MethodInfo methodInfo = new MethodInfo(RouteRegistryTest.class, Object.class.getMethod("toString"));
+        methodInfo.setUrlPattern(url);
+        List<String> names = new ArrayList<>();
+        List<PathConstraint> constraints = new ArrayList<>();
+        for (String segment : UrlTemplate.segments(url)) {
+            if (UrlTemplate.isVariable(segment)) {
+                names.add(UrlTemplate.variableName(segment));
+                constraints.add(UrlTemplate.variableConstraint(segment));
+            }
+        }
+        methodInfo.setPathParamNames(names);
+        methodInfo.setPathParamConstraints(constraints);
+        return methodInfo;
+    }
+
+    @Test
+    void staticRouteWinsOverVariable() throws Exception {
+        MethodInfo nouveau = route("/employe/nouveau");
+        MethodInfo parId = route("/employe/{id:long}");
+        MethodInfo parNom = route("/employe/{nom}");
+        RouteRegistry registry = new RouteRegistry.Builder()
+                .add("GET", "/employe/nouveau", nouveau)
+                .add("GET", "/employe/{id:long}", parId)
+                .add("GET", "/employe/{nom}", parNom)
+                .build();
+
+        assertSame(nouveau, registry.resolve("GET", "/employe/nouveau").getMethodInfo());
+        assertSame(parId, registry.resolve("GET", "/employe/42").getMethodInfo());
+        assertArrayEquals(new String[]{"42"}, registry.resolve("GET", "/employe/42").getPathValues());
+        assertSame(parNom, registry.resolve("GET", "/employe/dupont").getMethodInfo());
+    }
+
+    @Test
+    void staticSegmentBacktracksToVariable() throws Exception {
+        MethodInfo fiche = route("/employe/nouveau/fiche");
+        MethodInfo detail = route("/employe/{nom}/detail");
+        RouteRegistry registry = new RouteRegistry.Builder()
+                .add("GET", "/employe/nouveau/fiche", fiche)
+                .add("GET", "/employe/{nom}/detail", detail)
+                .build();
+
+        RouteMatch match = registry.resolve("GET", "/employe/nouveau/detail");
+        assertSame(detail, match.getMethodInfo());
+        assertArrayEquals(new String[]{"nouveau"}, match.getPathValues());
+    }
+
+    @Test
+    void embeddedVariables() throws Exception {
+        MethodInfo statique = route("/emp-5");
+        MethodInfo entier = route("/emp-{id:int}");
+        MethodInfo nom = route("/emp-{nom}");
+        MethodInfo pdf = route("/doc/{nom}.pdf");
+        RouteRegistry registry = new RouteRegistry.Builder()
+                .add("GET", "/emp-5", statique)
+                .add("GET", "/emp-{id:int}", entier)
+                .add("GET", "/emp-{nom}", nom)
+                .add("GET", "/doc/{nom}.pdf", pdf)
+                .build();
+
+        assertSame(statique, registry.resolve("GET", "/emp-5").getMethodInfo());
+        assertSame(entier, registry.resolve("GET", "/emp-42").getMethodInfo());
+        assertArrayEquals(new String[]{"42"}, registry.resolve("GET", "/emp-42").getPathValues());
+        assertSame(nom, registry.resolve("GET", "/emp-bob").getMethodInfo());
+        assertArrayEquals(new String[]{"rapport"}, registry.resolve("GET", "/doc/rapport.pdf").getPathValues());
+        // Préfixe seul ou suffixe seul : la valeur serait vide
+        assertNull(registry.resolve("GET", "/emp-"));
+        assertNull(registry.resolve("GET", "/doc/.pdf"));
+        assertNull(registry.resolve("GET", "/doc/rapport.txt"));
+    }
+
+    @Test
+    void trailingSlashIsADistinctPath() throws Exception {
+        MethodInfo liste = route("/employe");
+        MethodInfo detail = route("/employe/{id}");
+        RouteRegistry registry = new RouteRegistry.Builder()
+                .add("GET", "/employe", liste)
+                .add("GET", "/employe/{id}", detail)
+                .build();
+
+        assertSame(liste, registry.resolve("GET", "/employe").getMethodInfo());
+        // "/employe/" a un dernier segment vide : ni la route statique ni {id} (non vide)
+        assertNull(registry.resolve("GET", "/employe/"));
+        assertNull(registry.resolve("GET", "/employe/7/"));
+    }
+
+    @Test
+    void bareContextPathResolvesAsRoot() throws Exception {
+        MethodInfo accueil = route("/");
+        RouteRegistry registry = new RouteRegistry.Builder()
+                .add("GET", "/", accueil)
+                .build();
+
+        assertSame(accueil, registry.resolve("GET", "/").getMethodInfo());
+        assertSame(accueil, registry.resolve("GET", "/app", 4).getMethodInfo());
+        assertSame(accueil, registry.resolve("GET", "/app/", 4).getMethodInfo());
+        assertSame(accueil, registry.resolve("GET", "", 0).getMethodInfo());
+    }
+
+    @Test
+    void contextPathOffsetIsSkipped() throws Exception {
+        MethodInfo detail = route("/employe/{id:int}");
+        RouteRegistry registry = new RouteRegistry.Builder()
+                .add("GET", "/employe/{id:int}", detail)
+                .build();
+
+        RouteMatch match = registry.resolve("GET", "/app/employe/3", 4);
+        assertSame(detail, match.getMethodInfo());
+        assertArrayEquals(new String[]{"3"}, match.getPathValues());
+    }
+
+    @Test
+    void noMatch() throws Exception {
+        RouteRegistry registry = new RouteRegistry.Builder()
+                .add("GET", "/employe", route("/employe"))
+                .add("GET", "/employe/{id:int}", route("/employe/{id:int}"))
+                .build();
+
+        assertNull(registry.resolve("GET", "/departement"));
+        assertNull(registry.resolve("GET", "/employe/abc"));
+        assertNull(registry.resolve("GET", "/employe/1/2"));
+        assertNull(registry.resolve("POST", "/employe"));
+        assertNull(registry.resolve("GET", "/"));
+    }
+
+    @Test
+    void anyMethodIsAFallback() throws Exception {
+        MethodInfo get = route("/employe/{id}");
+        MethodInfo any = route("/employe/{id}");
+        RouteRegistry registry = new RouteRegistry.Builder()
+                .add("GET", "/employe/{id}", get)
+                .add(RouteRegistry.ANY, "/employe/{id}", any)
+                .build();
+
+        assertSame(get, registry.resolve("GET", "/employe/1").getMethodInfo());
+        assertSame(any, registry.resolve("POST", "/employe/1").getMethodInfo());
+    }
+
+    @Test
+    void sameShapeTwiceIsAmbiguous() throws Exception {
+        RouteRegistry.Builder builder = new RouteRegistry.Builder()
+                .add("GET", "/employe/{id}", route("/employe/{id}"));
+        MethodInfo other = route("/employe/{nom}");
+        assertThrows(IllegalArgumentException.class, () -> builder.add("GET", "/employe/{nom}", other));
+    }
+
+    @Test
+    void cachedDynamicMatchIsReused() throws Exception {
+        MethodInfo detail = route("/employe/{id}");
+        RouteRegistry registry = new RouteRegistry.Builder()
+                .routeCacheSize(4)
+                .add("GET", "/employe/{id}", detail)
+                .build();
+
+        RouteMatch first = registry.resolve("GET", "/employe/9");
+        assertSame(first, registry.resolve("GET", "/employe/9"));
+        assertEquals("9", first.getPathValues()[0]);
+    }
+}
@@ -0,0 +1,47 @@
+package itu.framework.routing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SegmentTableTest {
+
+    @Test
+    void lookupBySubstringRange() {
+        SegmentTable<String> table = new SegmentTable<>(Map.of("employe", "E", "departement", "D", "", "vide"));
+
+        String uri = "/app/employe/departement/";
+        assertEquals("E", table.get(uri, 5, 12));
+        assertEquals("D", table.get(uri, 13, 24));
+        assertEquals("vide", table.get(uri, 25, 25));
+        assertNull(table.get(uri, 5, 11));
+        assertNull(table.get(uri, 0, 4));
+    }
+
+    @Test
+    void collidingHashesAreProbed() {
+        // "Aa" et "BB" ont le même String.hashCode()
+        Map<String, Integer> entries = new HashMap<>();
+        entries.put("Aa", 1);
+        entries.put("BB", 2);
+        entries.put("AaAa", 3);
+        entries.put("BBBB", 4);
+        SegmentTable<Integer> table = new SegmentTable<>(entries);
+
+        assertEquals(1, table.get("xAa", 1, 3));
+        assertEquals(2, table.get("BB", 0, 2));
+        assertEquals(3, table.get("AaAa", 0, 4));
+        assertEquals(4, table.get("BBBB", 0, 4));
+        assertNull(table.get("AaBB", 0, 4));
+    }
+
+    @Test
+    void emptyTable() {
+        SegmentTable<String> table = new SegmentTable<>(Map.of());
+        assertNull(table.get("/employe", 1, 8));
+    }
+}
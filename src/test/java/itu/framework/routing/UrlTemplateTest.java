@@ -0,0 +1,63 @@
+package itu.framework.routing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UrlTemplateTest {
+
+    @Test
+    void segments() {
+        assertEquals(List.of("a", "{id}"), UrlTemplate.segments("/a/{id}"));
+        assertEquals(List.of(""), UrlTemplate.segments("/"));
+        assertEquals(List.of("a", ""), UrlTemplate.segments("/a/"));
+        assertEquals(List.of("a", "", "b"), UrlTemplate.segments("/a//b"));
+    }
+
+    @Test
+    void wholeSegmentVariable() {
+        assertTrue(UrlTemplate.isVariable("{id:long}"));
+        assertEquals("id", UrlTemplate.variableName("{id:long}"));
+        assertSame(PathConstraint.LONG, UrlTemplate.variableConstraint("{id:long}"));
+        assertSame(PathConstraint.STRING, UrlTemplate.variableConstraint("{ nom }"));
+        assertEquals("nom", UrlTemplate.variableName("{ nom }"));
+        assertEquals("", UrlTemplate.variablePrefix("{id}"));
+        assertEquals("", UrlTemplate.variableSuffix("{id}"));
+    }
+
+    @Test
+    void embeddedVariable() {
+        assertTrue(UrlTemplate.isVariable("emp-{id:int}"));
+        assertEquals("emp-", UrlTemplate.variablePrefix("emp-{id:int}"));
+        assertEquals("", UrlTemplate.variableSuffix("emp-{id:int}"));
+        assertEquals("id", UrlTemplate.variableName("emp-{id:int}"));
+        assertEquals(".pdf", UrlTemplate.variableSuffix("{nom}.pdf"));
+        assertDoesNotThrow(() -> UrlTemplate.validateSegment("v{n:int}-x"));
+    }
+
+    @Test
+    void staticSegment() {
+        assertFalse(UrlTemplate.isVariable("employe"));
+        assertFalse(UrlTemplate.isVariable(""));
+        assertDoesNotThrow(() -> UrlTemplate.validateSegment("employe"));
+    }
+
+    @Test
+    void malformedSegmentsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> UrlTemplate.validateSegment("a{b"));
+        assertThrows(IllegalArgumentException.class, () -> UrlTemplate.validateSegment("a}b"));
+        assertThrows(IllegalArgumentException.class, () -> UrlTemplate.validateSegment("}{"));
+        assertThrows(IllegalArgumentException.class, () -> UrlTemplate.validateSegment("{a}-{b}"));
+        assertThrows(IllegalArgumentException.class, () -> UrlTemplate.validateSegment("{}"));
+        assertThrows(IllegalArgumentException.class, () -> UrlTemplate.validateSegment("{:int}"));
+        assertThrows(IllegalArgumentException.class, () -> UrlTemplate.validateSegment("{id:float}"));
+        assertThrows(IllegalArgumentException.class, () -> UrlTemplate.validateSegment("f-{rest:*}"));
+    }
+}
@@ -0,0 +1,127 @@
+package itu.framework.scan;
+
+import itu.framework.bind.BindingContext;
+import itu.framework.bind.UploadedFiles;
+import itu.framework.scan.ControllerScanner.MethodInfo;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ControllerScannerTest {
+
+    private static final String MAPS = "itu.framework.scan.fixture.maps";
+
+    @Test
+    void mapParametersAreAccepted() {
+        Map<String, MethodInfo> mappings = ControllerScanner.scanControllers(MAPS);
+
+        assertNotNull(mappings.get("POST:/json"));
+        assertNotNull(mappings.get("POST:/files"));
+        MethodInfo form = mappings.get("POST:/form");
+        assertNotNull(form);
+        // La Map @Session ne compte pas comme second paramètre Map
+        assertEquals(1, form.getSessionParameterIndex());
+        assertTrue(form.isUploadConsumer());
+    }
+
+    @Test
+    void twoMapParametersAreRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ControllerScanner.scanControllers("itu.framework.scan.fixture.twomaps"));
+    }
+
+    @Test
+    void jsonBodyIsBoundIntoMap() throws Exception {
+        MethodInfo json = ControllerScanner.scanControllers(MAPS).get("POST:/json");
+        HttpServletRequest request = request("application/json",
+                "{\"nom\":\"Dupont\",\"age\":42,\"tags\":[\"a\",\"b\"]}", Collections.emptyMap());
+
+        Object bound = json.getArgumentBinders()[0].bind(context(request));
+
+        Map<?, ?> body = (Map<?, ?>) bound;
+        assertEquals("Dupont", body.get("nom"));
+        assertEquals(42.0, body.get("age"));
+        assertEquals(List.of("a", "b"), body.get("tags"));
+    }
+
+    @Test
+    void formBodyFallsBackToParameterMap() throws Exception {
+        MethodInfo json = ControllerScanner.scanControllers(MAPS).get("POST:/json");
+        HttpServletRequest request = request("application/x-www-form-urlencoded", "",
+                Map.of("nom", "Dupont"));
+
+        Object bound = json.getArgumentBinders()[0].bind(context(request));
+
+        assertEquals(Map.of("nom", "Dupont"), bound);
+    }
+
+    private static BindingContext context(HttpServletRequest request) {
+        return new BindingContext(request, "POST", new String[0], null, UploadedFiles.NONE, 0);
+    }
+
+    /**
+     * Requête minimale : type de contenu, corps et paramètres de formulaire.
+     */
+    private static HttpServletRequest request(String contentType, String body, Map<String, String> params) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        return (HttpServletRequest) Proxy.newProxyInstance(
+                ControllerScannerTest.class.getClassLoader(),
+                new Class<?>[]{HttpServletRequest.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getContentType" -> contentType;
+                    case "getContentLengthLong" -> (long) bytes.length;
+                    case "getInputStream" -> new BodyStream(bytes);
+                    case "getParameterNames" -> Collections.enumeration(params.keySet());
+                    case "getParameter" -> params.get((String) args[0]);
+                    default -> null;
+                });
+    }
+
+    private static final class BodyStream extends ServletInputStream {
+        private final ByteArrayInputStream in;
+
+        BodyStream(byte[] bytes) {
+            this.in = new ByteArrayInputStream(bytes);
+        }
+
+        @Override
+        public int read() {
+            return in.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            return in.read(b, off, len);
+        }
+
+        @Override
+        public boolean isFinished() {
+            return in.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package itu.framework.scan.fixture.maps;
+
+import itu.framework.annotation.Controller;
+import itu.framework.annotation.HttpMethod;
+import itu.framework.annotation.Json;
+import itu.framework.annotation.Session;
+import itu.framework.annotation.Url;
+import itu.framework.web.UploadFile;
+
+import java.util.Map;
+
+/**
+ * Contrôleur de test : une route par stratégie de liaison d'une Map.
+ */
+@Controller
+public class MapController {
+
+    @Url("/json")
+    @HttpMethod("POST")
+    @Json
+    public Map<String, Object> json(Map<String, Object> body) {
+        return body;
+    }
+
+    @Url("/form")
+    @HttpMethod("POST")
+    public String form(Map<String, Object> params, @Session Map<String, Object> session) {
+        return "ok";
+    }
+
+    @Url("/files")
+    @HttpMethod("POST")
+    public String files(Map<String, UploadFile> files) {
+        return "ok";
+    }
+}
@@ -0,0 +1,20 @@
+package itu.framework.scan.fixture.twomaps;
+
+import itu.framework.annotation.Controller;
+import itu.framework.annotation.HttpMethod;
+import itu.framework.annotation.Url;
+
+import java.util.Map;
+
+/**
+ * Contrôleur de test invalide : deux paramètres Map hors @Session.
+ */
+@Controller
+public class TwoMapsController {
+
+    @Url("/deux")
+    @HttpMethod("POST")
+    public String deux(Map<String, Object> a, Map<String, Object> b) {
+        return "ok";
+    }
+}